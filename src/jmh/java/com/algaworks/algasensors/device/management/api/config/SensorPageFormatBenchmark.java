@@ -0,0 +1,109 @@
+package com.algaworks.algasensors.device.management.api.config;
+
+import com.algaworks.algasensors.device.management.api.config.jackson.JacksonBinaryFormatsConfig;
+import com.algaworks.algasensors.device.management.api.config.jackson.TSIDJacksonConfig;
+import com.algaworks.algasensors.device.management.api.model.SensorInput;
+import com.algaworks.algasensors.device.management.api.model.SensorOutput;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.hypersistence.tsid.TSID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Página de sensores em JSON, CBOR e Smile, com os mesmos módulos dos conversores HTTP.
+ * O tamanho de cada formato sai no log do setup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SensorPageFormatBenchmark {
+
+    private static final TypeReference<List<SensorInput>> INPUTS = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> page;
+    private byte[] pageBytes;
+    private byte[] inputBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> throw new IllegalArgumentException(format);
+        };
+        objectMapper.registerModule(new TSIDJacksonConfig().tsidModule());
+        if (!format.equals("json")) {
+            objectMapper.registerModule(JacksonBinaryFormatsConfig.tsidBinaryModule());
+        }
+
+        List<SensorOutput> content = new ArrayList<>(pageSize);
+        List<SensorInput> inputs = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(SensorOutput.builder()
+                    .id(TSID.Factory.getTsid())
+                    .name("Sensor " + i)
+                    .ip("192.168.1." + (i % 255))
+                    .location("Sala " + (i % 10))
+                    .protocol("MQTT")
+                    .model("S-100")
+                    .enabled(i % 2 == 0)
+                    .build());
+            inputs.add(SensorInput.builder()
+                    .name("Sensor " + i)
+                    .ip("192.168.1." + (i % 255))
+                    .location("Sala " + (i % 10))
+                    .protocol("MQTT")
+                    .model("S-100")
+                    .build());
+        }
+        // mesmo formato do Page serializado pelo controller
+        page = Map.of("content", content, "totalElements", 10_000, "totalPages", 10_000 / pageSize,
+                "number", 0, "size", pageSize);
+        pageBytes = objectMapper.writeValueAsBytes(page);
+        inputBytes = objectMapper.writeValueAsBytes(inputs);
+        System.out.printf("%n%s: página de %d sensores = %d bytes, %d SensorInput = %d bytes%n",
+                format, pageSize, pageBytes.length, pageSize, inputBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    // o que um gateway faz com a resposta: parse sem conhecer o tipo
+    @Benchmark
+    public JsonNode parsePage() throws IOException {
+        return objectMapper.readTree(pageBytes);
+    }
+
+    @Benchmark
+    public List<SensorInput> deserializeInputs() throws IOException {
+        return objectMapper.readValue(inputBytes, INPUTS);
+    }
+
+}
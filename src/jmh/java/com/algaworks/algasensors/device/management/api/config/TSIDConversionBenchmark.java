@@ -0,0 +1,122 @@
+package com.algaworks.algasensors.device.management.api.config;
+
+import com.algaworks.algasensors.device.management.api.config.jackson.TSIDJacksonConfig;
+import com.algaworks.algasensors.device.management.api.config.jackson.TSIDToStringSerializer;
+import com.algaworks.algasensors.device.management.api.config.jpa.TSIDToLongJpaAttributeConverter;
+import com.algaworks.algasensors.device.management.api.config.web.StringToTSIDWebConverter;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.hypersistence.tsid.TSID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Conversões de TSID feitas em toda requisição: path variable, JSON e coluna BIGINT
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TSIDConversionBenchmark {
+
+    private final StringToTSIDWebConverter webConverter = new StringToTSIDWebConverter();
+    private final TSIDToLongJpaAttributeConverter jpaConverter = new TSIDToLongJpaAttributeConverter();
+
+    private ObjectWriter tsidWriter;
+    private ObjectWriter toStringTsidWriter;
+    private ObjectReader tsidReader;
+
+    private TSID tsid;
+    private String tsidString;
+    private String tsidJson;
+    private Long tsidLong;
+    private final char[] buffer = new char[13];
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new TSIDJacksonConfig().tsidModule());
+        tsidWriter = objectMapper.writerFor(TSID.class);
+        tsidReader = objectMapper.readerFor(TSID.class);
+        // serializer anterior, mantido só para comparar a alocação (-prof gc)
+        toStringTsidWriter = new ObjectMapper()
+                .registerModule(new SimpleModule().addSerializer(TSID.class, new JsonSerializer<>() {
+                    @Override
+                    public void serialize(TSID value, JsonGenerator gen, SerializerProvider serializers)
+                            throws IOException {
+                        gen.writeString(value.toString());
+                    }
+                }))
+                .writerFor(TSID.class);
+
+        tsid = TSID.Factory.getTsid();
+        tsidString = tsid.toString();
+        tsidJson = tsidWriter.writeValueAsString(tsid);
+        tsidLong = tsid.toLong();
+    }
+
+    @Benchmark
+    public TSID webConverter() {
+        return webConverter.convert(tsidString);
+    }
+
+    @Benchmark
+    public String jacksonSerializer() throws JsonProcessingException {
+        return tsidWriter.writeValueAsString(tsid);
+    }
+
+    @Benchmark
+    public String jacksonSerializerToString() throws JsonProcessingException {
+        return toStringTsidWriter.writeValueAsString(tsid);
+    }
+
+    @Benchmark
+    public String tsidToString() {
+        return tsid.toString();
+    }
+
+    @Benchmark
+    public char[] tsidEncode() {
+        TSIDToStringSerializer.encode(tsid.toLong(), buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public TSID jacksonDeserializer() throws JsonProcessingException {
+        return tsidReader.readValue(tsidJson);
+    }
+
+    @Benchmark
+    public Long jpaToDatabaseColumn() {
+        return jpaConverter.convertToDatabaseColumn(tsid);
+    }
+
+    @Benchmark
+    public TSID jpaToEntityAttribute() {
+        return jpaConverter.convertToEntityAttribute(tsidLong);
+    }
+
+    @Benchmark
+    public SensorId sensorIdFromTSID() {
+        return new SensorId(tsid);
+    }
+
+    @Benchmark
+    public SensorId sensorIdFromLong() {
+        return new SensorId(tsidLong);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.algaworks.algasensors.device.management.api.controller;
+
+import com.algaworks.algasensors.device.management.api.model.SensorOutput;
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.model.SensorSummary;
+import io.hypersistence.tsid.TSID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Builder a partir da entidade x projeção JPQL do SensorRepository (SensorSummary) convertida no controller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SensorOutputMappingBenchmark {
+
+    private Sensor sensor;
+
+    @Setup
+    public void setUp() {
+        sensor = Sensor.builder()
+                .id(new SensorId(TSID.Factory.getTsid()))
+                .name("Sensor 1")
+                .ip("192.168.1.100")
+                .protocol("MQTT")
+                .location("Sala A")
+                .model("S-100")
+                .enabled(true)
+                .build();
+    }
+
+    @Benchmark
+    public SensorOutput convertToModelOutput() {
+        return SensorController.convertToModelOutput(sensor);
+    }
+
+    @Benchmark
+    public SensorOutput constructorProjection() {
+        return SensorController.convertToModelOutput(new SensorSummary(sensor.getId().getValue(), sensor.getName(),
+                sensor.getIp(), sensor.getLocation(), sensor.getProtocol(), sensor.getModel(), sensor.getEnabled()));
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.algaworks.algasensors.device.management.common;
+
+import io.hypersistence.tsid.TSID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * shared: todas as threads disputam a mesma TSID.Factory (modo padrão do IdGenerator)
+ * atomic: CAS sobre uma sequência única do AtomicTSIDFactory (tsid.mode=atomic)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IdGeneratorBenchmark {
+
+    @Param({"shared", "atomic"})
+    private String mode;
+
+    @Param({"100"})
+    private int blockSize;
+
+    private TSID.Factory sharedFactory;
+    private AtomicTSIDFactory atomicFactory;
+
+    @Setup
+    public void setUp() {
+        sharedFactory = TSID.Factory.builder().withNodeBits(10).withNode(1).build();
+        atomicFactory = new AtomicTSIDFactory(1, 10);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TSID generateTSID1Thread() {
+        return generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TSID generateTSID8Threads() {
+        return generate();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public TSID generateTSID64Threads() {
+        return generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public List<TSID> generateTSIDBlock8Threads() {
+        return generateBlock();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public List<TSID> generateTSIDBlock64Threads() {
+        return generateBlock();
+    }
+
+    private TSID generate() {
+        return "atomic".equals(mode) ? atomicFactory.generate() : sharedFactory.generate();
+    }
+
+    private List<TSID> generateBlock() {
+        if ("atomic".equals(mode)) {
+            return atomicFactory.generate(blockSize);
+        }
+        List<TSID> tsids = new ArrayList<>(blockSize);
+        for (int i = 0; i < blockSize; i++) {
+            tsids.add(sharedFactory.generate());
+        }
+        return tsids;
+    }
+
+}
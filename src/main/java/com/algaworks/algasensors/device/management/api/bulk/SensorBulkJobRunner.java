@@ -0,0 +1,133 @@
+package com.algaworks.algasensors.device.management.api.bulk;
+
+import com.algaworks.algasensors.device.management.api.config.batch.SensorBatchProperties;
+import com.algaworks.algasensors.device.management.api.model.SensorBulkFilterInput;
+import com.algaworks.algasensors.device.management.api.stream.SensorChangedEvent;
+import com.algaworks.algasensors.device.management.api.stream.SensorsChangedEvent;
+import com.algaworks.algasensors.device.management.domain.model.SensorBulkJob;
+import com.algaworks.algasensors.device.management.domain.model.SensorMonitoringOutboxEntry;
+import com.algaworks.algasensors.device.management.domain.repository.SensorBulkJobRepository;
+import com.algaworks.algasensors.device.management.domain.repository.SensorMonitoringOutboxRepository;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import io.hypersistence.tsid.TSID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Executa a habilitação/desabilitação em massa fora da requisição. Os sensores são percorridos por
+ * keyset em blocos de algasensors.batch.chunk-size: cada bloco é um UPDATE, as entradas da outbox e os
+ * eventos, numa transação própria. Nada de carregar todos os ids nem de uma transação do tamanho do filtro.
+ * Como o filtro só seleciona quem ainda não está no estado pedido, repetir um bloco não tem efeito.
+ * Cada bloco renova o heartbeat do job; se a instância parar no meio, qualquer instância marca o job
+ * como falho depois de algasensors.batch.job-stale-after sem heartbeat.
+ */
+@Slf4j
+@Component
+public class SensorBulkJobRunner implements DisposableBean {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final SensorRepository sensorRepository;
+    private final SensorMonitoringOutboxRepository outboxRepository;
+    private final SensorBulkJobRepository jobRepository;
+    private final SensorBatchProperties batchProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sensor-bulk-job-", 0).factory());
+
+    public SensorBulkJobRunner(SensorRepository sensorRepository,
+                               SensorMonitoringOutboxRepository outboxRepository,
+                               SensorBulkJobRepository jobRepository,
+                               SensorBatchProperties batchProperties,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher) {
+        this.sensorRepository = sensorRepository;
+        this.outboxRepository = outboxRepository;
+        this.jobRepository = jobRepository;
+        this.batchProperties = batchProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    // o job já deve estar gravado: a execução roda em outra thread e outras transações
+    public void submit(SensorBulkJob job, SensorBulkFilterInput filter) {
+        executor.execute(() -> run(job, filter));
+    }
+
+    private void run(SensorBulkJob job, SensorBulkFilterInput filter) {
+        boolean enabled = job.getOperation() == SensorMonitoringOutboxEntry.Operation.ENABLE;
+        boolean filterByIds = filter.getIds() != null && !filter.getIds().isEmpty();
+        List<TSID> ids = filterByIds ? filter.getIds() : List.of();
+        int chunkSize = Math.max(1, batchProperties.getChunkSize());
+        var eventType = enabled ? SensorChangedEvent.Type.ENABLED : SensorChangedEvent.Type.DISABLED;
+
+        try {
+            TSID after = TSID.from(0L);
+            List<TSID> chunk;
+            do {
+                TSID cursor = after;
+                chunk = transactionTemplate.execute(status -> {
+                    List<TSID> sensorIds = sensorRepository.findIdsToSetEnabledAfter(filter.getLocation(),
+                            filter.getProtocol(), filter.getModel(), filterByIds, ids, enabled, cursor,
+                            PageRequest.ofSize(chunkSize));
+                    if (sensorIds.isEmpty()) {
+                        return sensorIds;
+                    }
+                    sensorRepository.updateEnabled(sensorIds, enabled);
+                    outboxRepository.persistAll(sensorIds.stream()
+                            .map(sensorId -> SensorMonitoringOutboxEntry.of(sensorId, job.getOperation(), job.getId()))
+                            .toList());
+                    if (jobRepository.addApplied(job.getId(), sensorIds.size(), OffsetDateTime.now()) == 0) {
+                        throw new IllegalStateException("Job já marcado como falho");
+                    }
+                    eventPublisher.publishEvent(new SensorsChangedEvent(eventType, sensorIds));
+                    return sensorIds;
+                });
+                if (!chunk.isEmpty()) {
+                    after = chunk.get(chunk.size() - 1);
+                }
+            } while (chunk.size() == chunkSize);
+            transactionTemplate.executeWithoutResult(status ->
+                    jobRepository.markFinished(job.getId(), OffsetDateTime.now()));
+        } catch (RuntimeException e) {
+            log.error("Job {} de {} interrompido", TSID.from(job.getId()), job.getOperation(), e);
+            // se nem isso gravar, o job fica sem heartbeat e failStaleJobs o marca depois
+            transactionTemplate.executeWithoutResult(status ->
+                    jobRepository.markFailed(job.getId(), OffsetDateTime.now(), errorMessage(e)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@sensorBatchProperties.jobStaleAfter.toMillis()}",
+            initialDelayString = "#{@sensorBatchProperties.jobStaleAfter.toMillis()}")
+    public void failStaleJobs() {
+        OffsetDateTime now = OffsetDateTime.now();
+        Integer failed = transactionTemplate.execute(status -> jobRepository.markStaleAsFailed(
+                now.minus(batchProperties.getJobStaleAfter()), now, "Sem heartbeat da instância que executava o job"));
+        if (failed != null && failed > 0) {
+            log.warn("{} jobs em massa sem heartbeat marcados como falhos", failed);
+        }
+    }
+
+    private static String errorMessage(RuntimeException e) {
+        String message = e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+}
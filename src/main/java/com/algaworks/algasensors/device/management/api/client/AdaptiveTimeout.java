@@ -0,0 +1,62 @@
+package com.algaworks.algasensors.device.management.api.client;
+
+import java.time.Duration;
+
+/*
+ * Timeout calculado como o RTO do TCP (RFC 6298): média móvel da latência + 4x a variação,
+ * limitado entre min e max. Começa no máximo até receber as primeiras amostras.
+ * Cada timeout dobra o valor atual (RFC 6298, 5.5) até a próxima resposta medida; sem isso,
+ * depois de um período rápido o timeout fica preso no mínimo e nenhuma chamada mais lenta completa.
+ */
+public class AdaptiveTimeout {
+
+    private final long minNanos;
+    private final long maxNanos;
+
+    private double smoothedNanos = -1;
+    private double variationNanos;
+    private long backoffNanos;
+
+    public AdaptiveTimeout(Duration min, Duration max) {
+        this.minNanos = min.toNanos();
+        this.maxNanos = Math.max(minNanos, max.toNanos());
+    }
+
+    public synchronized void record(Duration latency) {
+        backoffNanos = 0;
+        addSample(latency.toNanos());
+    }
+
+    /*
+     * A latência real foi no mínimo o timeout atual: entra como amostra, para a média subir,
+     * e o timeout dobra até chegar uma resposta
+     */
+    public synchronized void recordTimeout() {
+        long timedOut = currentNanos();
+        addSample(timedOut);
+        backoffNanos = Math.min(maxNanos, 2 * timedOut);
+    }
+
+    private void addSample(double sample) {
+        if (smoothedNanos < 0) {
+            smoothedNanos = sample;
+            variationNanos = sample / 2;
+            return;
+        }
+        variationNanos = 0.75 * variationNanos + 0.25 * Math.abs(smoothedNanos - sample);
+        smoothedNanos = 0.875 * smoothedNanos + 0.125 * sample;
+    }
+
+    public synchronized Duration current() {
+        return Duration.ofNanos(currentNanos());
+    }
+
+    private long currentNanos() {
+        if (smoothedNanos < 0) {
+            return maxNanos;
+        }
+        long timeout = (long) (smoothedNanos + 4 * variationNanos);
+        return Math.max(backoffNanos, Math.min(maxNanos, Math.max(minNanos, timeout)));
+    }
+
+}
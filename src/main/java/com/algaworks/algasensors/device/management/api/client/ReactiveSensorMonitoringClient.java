@@ -0,0 +1,23 @@
+package com.algaworks.algasensors.device.management.api.client;
+
+import com.algaworks.algasensors.device.management.api.model.SensorMonitoringOutput;
+import io.hypersistence.tsid.TSID;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.service.annotation.DeleteExchange;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PutExchange;
+import reactor.core.publisher.Mono;
+
+@HttpExchange("/api/sensors/{sensorId}/monitoring")
+public interface ReactiveSensorMonitoringClient {
+
+    @PutExchange("/enable")
+    Mono<Void> enableMonitoring(@PathVariable TSID sensorId);
+
+    @DeleteExchange("/enable")
+    Mono<Void> disableMonitoring(@PathVariable TSID sensorId);
+
+    @GetExchange
+    Mono<SensorMonitoringOutput> getDetail (@PathVariable TSID sensorId);
+}
@@ -1,20 +1,68 @@
 package com.algaworks.algasensors.device.management.api.client;
 
+import com.algaworks.algasensors.device.management.api.client.impl.ResilientReactiveSensorMonitoringClient;
+import com.algaworks.algasensors.device.management.api.client.impl.ResilientSensorMonitoringBatchClient;
+import com.algaworks.algasensors.device.management.api.client.impl.ResilientSensorMonitoringClient;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
+import org.springframework.web.reactive.function.client.support.WebClientAdapter;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
 @Configuration
 public class RestClientConfig {
 
+    public static final String SENSOR_MONITORING = "sensorMonitoring";
+
+    /*
+     * Com algasensors.monitoring.client-type=reactive a mesma interface passa a usar o WebClient;
+     * os métodos síncronos continuam bloqueando quem chama (o outbox, por exemplo)
+     */
+    @Bean
+    public SensorMonitoringClient sensorMonitoringClient (RestClientFactory factory,
+                                                          WebClientFactory webClientFactory,
+                                                          SensorMonitoringProperties properties,
+                                                          CircuitBreakerRegistry circuitBreakerRegistry,
+                                                          BulkheadRegistry bulkheadRegistry) {
+        HttpExchangeAdapter adapter = properties.getClientType() == SensorMonitoringProperties.ClientType.REACTIVE
+                ? WebClientAdapter.create(webClientFactory.sensorMonitoringWebClient())
+                : RestClientAdapter.create(factory.temperatureMonitoringRestClient());
+        HttpServiceProxyFactory proxyFactory = HttpServiceProxyFactory.builderFor(adapter).build();
+        return new ResilientSensorMonitoringClient(
+                proxyFactory.createClient(SensorMonitoringClient.class),
+                circuitBreakerRegistry.circuitBreaker(SENSOR_MONITORING),
+                bulkheadRegistry.bulkhead(SENSOR_MONITORING));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "algasensors.monitoring", name = "client-type", havingValue = "reactive")
+    public ReactiveSensorMonitoringClient reactiveSensorMonitoringClient (WebClientFactory webClientFactory,
+                                                                          CircuitBreakerRegistry circuitBreakerRegistry,
+                                                                          BulkheadRegistry bulkheadRegistry) {
+        WebClientAdapter adapter = WebClientAdapter.create(webClientFactory.sensorMonitoringWebClient());
+        HttpServiceProxyFactory proxyFactory = HttpServiceProxyFactory.builderFor(adapter).build();
+        return new ResilientReactiveSensorMonitoringClient(
+                proxyFactory.createClient(ReactiveSensorMonitoringClient.class),
+                circuitBreakerRegistry.circuitBreaker(SENSOR_MONITORING),
+                bulkheadRegistry.bulkhead(SENSOR_MONITORING));
+    }
+
     @Bean
-    public SensorMonitoringClient sensorMonitoringClient (RestClientFactory factory) {
+    public SensorMonitoringBatchClient sensorMonitoringBatchClient (RestClientFactory factory,
+                                                                    CircuitBreakerRegistry circuitBreakerRegistry,
+                                                                    BulkheadRegistry bulkheadRegistry) {
         RestClient restClient = factory.temperatureMonitoringRestClient();
         RestClientAdapter adapter = RestClientAdapter.create(restClient);
         HttpServiceProxyFactory proxyFactory = HttpServiceProxyFactory.builderFor(adapter).build();
-        return proxyFactory.createClient(SensorMonitoringClient.class);
+        return new ResilientSensorMonitoringBatchClient(
+                proxyFactory.createClient(SensorMonitoringBatchClient.class),
+                circuitBreakerRegistry.circuitBreaker(SENSOR_MONITORING),
+                bulkheadRegistry.bulkhead(SENSOR_MONITORING));
     }
 
 }
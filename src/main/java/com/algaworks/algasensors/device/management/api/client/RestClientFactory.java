@@ -1,37 +1,153 @@
 package com.algaworks.algasensors.device.management.api.client;
 
 import com.algaworks.algasensors.device.management.api.client.exception.SensorMonitoringClientBadGatewayException;
-import lombok.RequiredArgsConstructor;
+import com.algaworks.algasensors.device.management.api.client.exception.SensorMonitoringClientRejectedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.net.SocketTimeoutException;
+import java.net.http.HttpClient;
 import java.time.Duration;
 
 @Component
-@RequiredArgsConstructor
-public class RestClientFactory {
+public class RestClientFactory implements DisposableBean {
 
     private final RestClient.Builder builder;
+    private final SensorMonitoringProperties properties;
+    private final AdaptiveTimeout adaptiveTimeout;
+    private final ClientHttpRequestFactory requestFactory;
+
+    public RestClientFactory(RestClient.Builder builder, SensorMonitoringProperties properties, MeterRegistry meterRegistry) {
+        this.builder = builder;
+        this.properties = properties;
+        this.adaptiveTimeout = properties.getAdaptiveTimeout().isEnabled() && !properties.getPool().isHttp2()
+                ? new AdaptiveTimeout(properties.getAdaptiveTimeout().getMin(), properties.getReadTimeout())
+                : null;
+        this.requestFactory = generateClientHttpRequestFactory(properties, adaptiveTimeout);
+        if (adaptiveTimeout != null) {
+            Gauge.builder("sensor.monitoring.adaptive.timeout", adaptiveTimeout, timeout -> timeout.current().toMillis())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
 
     @Bean
     public RestClient temperatureMonitoringRestClient () {
         //        return RestClient.create("http://localhost:8082"); Não carrega os modulos do JACKSON
-        return builder.baseUrl("http://localhost:8082")
-                .requestFactory(generateClientHttpRequestFactory())
+        RestClient.Builder clientBuilder = builder.clone()
+                .baseUrl(properties.getBaseUrl())
+                .requestFactory(requestFactory)
+                .defaultStatusHandler(HttpStatusCode::is4xxClientError, (request, response) -> {
+                    throw new SensorMonitoringClientRejectedException();
+                })
                 .defaultStatusHandler(HttpStatusCode::isError, (request, response) -> {
                     throw new SensorMonitoringClientBadGatewayException();
+                });
+        if (adaptiveTimeout != null) {
+            clientBuilder.requestInterceptor((request, body, execution) -> {
+                long start = System.nanoTime();
+                ClientHttpResponse response;
+                try {
+                    response = execution.execute(request, body);
+                } catch (SocketTimeoutException e) {
+                    adaptiveTimeout.recordTimeout();
+                    throw e;
+                }
+                adaptiveTimeout.record(Duration.ofNanos(System.nanoTime() - start));
+                return response;
+            });
+        }
+        return clientBuilder.build();
+    }
+
+    public static ClientHttpRequestFactory generateClientHttpRequestFactory(SensorMonitoringProperties properties) {
+        return generateClientHttpRequestFactory(properties, null);
+    }
+
+    public static ClientHttpRequestFactory generateClientHttpRequestFactory(SensorMonitoringProperties properties,
+                                                                            AdaptiveTimeout adaptiveTimeout) {
+        if (properties.getPool().isHttp2()) {
+            return generateHttp2ClientHttpRequestFactory(properties);
+        }
+        SensorMonitoringProperties.Pool pool = properties.getPool();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.getMaxConnections())
+                .setMaxConnPerRoute(pool.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(properties.getConnectTimeout().toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(properties.getReadTimeout().toMillis()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(pool.getTimeToLive().toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        TimeValue keepAlive = TimeValue.ofMilliseconds(pool.getKeepAlive().toMillis());
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(pool.getIdleEviction().toMillis()))
+                // respeita o Keep-Alive do servidor, mas nunca mantém a conexão ociosa por mais que o configurado
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive.compareTo(keepAlive) < 0 ? serverKeepAlive : keepAlive;
                 })
                 .build();
+
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        factory.setConnectionRequestTimeout(pool.getConnectionRequestTimeout());
+        factory.setReadTimeout(properties.getReadTimeout());
+        if (adaptiveTimeout != null) {
+            // o tempo de resposta de cada requisição acompanha a latência observada em vez dos 5s fixos
+            factory.setHttpContextFactory((method, uri) -> {
+                HttpClientContext context = HttpClientContext.create();
+                context.setRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(pool.getConnectionRequestTimeout().toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(adaptiveTimeout.current().toMillis()))
+                        .build());
+                return context;
+            });
+        }
+        return factory;
     }
 
-    private static ClientHttpRequestFactory generateClientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setReadTimeout(Duration.ofSeconds(5));
-        factory.setConnectTimeout(Duration.ofSeconds(3));
+    /*
+     * O HttpClient do JDK negocia HTTP/2 quando o servidor suporta e cai para HTTP/1.1 quando não;
+     * o pool dele não tem limite por rota, só o keep-alive (jdk.httpclient.keepalive.timeout)
+     */
+    private static ClientHttpRequestFactory generateHttp2ClientHttpRequestFactory(SensorMonitoringProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(properties.getReadTimeout());
         return factory;
     }
+
+    @Override
+    public void destroy() throws Exception {
+        if (requestFactory instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
 }
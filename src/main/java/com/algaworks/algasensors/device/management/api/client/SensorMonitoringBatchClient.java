@@ -0,0 +1,23 @@
+package com.algaworks.algasensors.device.management.api.client;
+
+import com.algaworks.algasensors.device.management.api.model.SensorMonitoringOutput;
+import io.hypersistence.tsid.TSID;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
+
+import java.util.Collection;
+import java.util.List;
+
+@HttpExchange("/api/sensors/monitoring")
+public interface SensorMonitoringBatchClient {
+
+    @PostExchange("/batch-enable")
+    void enableMonitoring(@RequestBody Collection<TSID> sensorIds);
+
+    @PostExchange("/batch-disable")
+    void disableMonitoring(@RequestBody Collection<TSID> sensorIds);
+
+    @PostExchange("/batch-detail")
+    List<SensorMonitoringOutput> getDetails(@RequestBody Collection<TSID> sensorIds);
+}
@@ -0,0 +1,88 @@
+package com.algaworks.algasensors.device.management.api.client;
+
+import com.algaworks.algasensors.device.management.api.model.SensorMonitoringOutput;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hypersistence.tsid.TSID;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/*
+ * Cache por sensor do GET de monitoramento. Consultas simultâneas ao mesmo sensor
+ * compartilham a mesma chamada; depois de refresh-after-write o valor antigo continua
+ * sendo servido enquanto a nova consulta roda em segundo plano, até expire-after-write.
+ */
+@Component
+public class SensorMonitoringDetailCache {
+
+    public static final String CACHE_NAME = "sensorMonitoringDetails";
+
+    private final AsyncLoadingCache<TSID, CachedSensorMonitoring> cache;
+    private final Duration refreshAfterWrite;
+
+    public SensorMonitoringDetailCache(SensorMonitoringFanOut sensorMonitoringFanOut,
+                                       SensorMonitoringProperties properties,
+                                       MeterRegistry meterRegistry) {
+        SensorMonitoringProperties.DetailCache detailCache = properties.getDetailCache();
+        this.refreshAfterWrite = detailCache.getRefreshAfterWrite();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(detailCache.getMaximumSize())
+                .refreshAfterWrite(detailCache.getRefreshAfterWrite())
+                .expireAfterWrite(detailCache.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<>() {
+                    @Override
+                    public CompletableFuture<CachedSensorMonitoring> asyncLoad(TSID sensorId, Executor executor) {
+                        return sensorMonitoringFanOut.getDetail(sensorId).thenApply(CachedSensorMonitoring::of);
+                    }
+
+                    // getAll roda na thread de quem chamou, que esperaria de qualquer forma; a fan-out limita
+                    // as chamadas simultâneas e as consultas que falharem ficam de fora do mapa
+                    @Override
+                    public CompletableFuture<Map<TSID, CachedSensorMonitoring>> asyncLoadAll(
+                            Set<? extends TSID> sensorIds, Executor executor) {
+                        Map<TSID, CachedSensorMonitoring> loaded = new LinkedHashMap<>();
+                        sensorMonitoringFanOut.getDetails(Set.copyOf(sensorIds))
+                                .forEach((sensorId, detail) -> loaded.put(sensorId, CachedSensorMonitoring.of(detail)));
+                        return CompletableFuture.completedFuture(loaded);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public CompletableFuture<CachedSensorMonitoring> getDetail(TSID sensorId) {
+        return cache.get(sensorId);
+    }
+
+    public Map<TSID, CachedSensorMonitoring> getDetails(Collection<TSID> sensorIds) {
+        return SensorMonitoringFanOut.join(cache.getAll(sensorIds));
+    }
+
+    public void invalidate(TSID sensorId) {
+        cache.synchronous().invalidate(sensorId);
+    }
+
+    public boolean isStale(CachedSensorMonitoring cached) {
+        return cached.fetchedAt().plus(refreshAfterWrite).isBefore(OffsetDateTime.now());
+    }
+
+    public record CachedSensorMonitoring(SensorMonitoringOutput output, OffsetDateTime fetchedAt) {
+
+        static CachedSensorMonitoring of(SensorMonitoringOutput output) {
+            return new CachedSensorMonitoring(output, OffsetDateTime.now());
+        }
+
+    }
+
+}
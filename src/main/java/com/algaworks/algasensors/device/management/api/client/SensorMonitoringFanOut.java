@@ -0,0 +1,125 @@
+package com.algaworks.algasensors.device.management.api.client;
+
+import com.algaworks.algasensors.device.management.api.model.SensorMonitoringOutput;
+import com.algaworks.algasensors.device.management.common.MicroBatcher;
+import io.hypersistence.tsid.TSID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class SensorMonitoringFanOut implements DisposableBean {
+
+    private final SensorMonitoringClient sensorMonitoringClient;
+    private final ReactiveSensorMonitoringClient reactiveSensorMonitoringClient;
+    private final ExecutorService executor;
+    private final int maxConcurrentCalls;
+    private final MicroBatcher<TSID, SensorMonitoringOutput> batcher;
+
+    public SensorMonitoringFanOut(SensorMonitoringClient sensorMonitoringClient,
+                                  ObjectProvider<ReactiveSensorMonitoringClient> reactiveSensorMonitoringClient,
+                                  SensorMonitoringBatchClient sensorMonitoringBatchClient,
+                                  SensorMonitoringProperties properties,
+                                  Environment environment) {
+        this.sensorMonitoringClient = sensorMonitoringClient;
+        this.reactiveSensorMonitoringClient = reactiveSensorMonitoringClient.getIfAvailable();
+        // Com spring.threads.virtual.enabled cada consulta ganha sua virtual thread; o limite fica com o semáforo e o bulkhead
+        this.executor = Threading.VIRTUAL.isActive(environment)
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sensor-monitoring-", 0).factory())
+                : Executors.newFixedThreadPool(properties.getFanOut().getThreads(),
+                        new CustomizableThreadFactory("sensor-monitoring-"));
+        this.maxConcurrentCalls = properties.getFanOut().getMaxConcurrentCalls();
+        SensorMonitoringProperties.Batch batch = properties.getBatch();
+        this.batcher = batch.isEnabled()
+                ? new MicroBatcher<>("sensor-monitoring-batcher",
+                        sensorIds -> getDetailsInBatch(sensorMonitoringBatchClient, sensorIds),
+                        batch.getMaxDelay(), batch.getMaxSize(), executor)
+                : null;
+    }
+
+    /*
+     * Com algasensors.monitoring.batch.enabled as consultas de vários sensores que chegam
+     * em poucos milissegundos saem juntas em um POST batch-detail.
+     * Com client-type=reactive a consulta não ocupa thread do executor enquanto espera a resposta
+     */
+    public CompletableFuture<SensorMonitoringOutput> getDetail(TSID sensorId) {
+        if (batcher != null) {
+            return batcher.submit(sensorId);
+        }
+        if (reactiveSensorMonitoringClient != null) {
+            return reactiveSensorMonitoringClient.getDetail(sensorId).toFuture();
+        }
+        return CompletableFuture.supplyAsync(() -> sensorMonitoringClient.getDetail(sensorId), executor);
+    }
+
+    /*
+     * Sensores cuja consulta falhar ficam de fora do mapa
+     */
+    public Map<TSID, SensorMonitoringOutput> getDetails(Collection<TSID> sensorIds) {
+        Map<TSID, CompletableFuture<SensorMonitoringOutput>> futures = new LinkedHashMap<>();
+        if (batcher != null) {
+            // o próprio batcher agrupa em lotes de max-size
+            sensorIds.forEach(sensorId -> futures.put(sensorId, batcher.submit(sensorId)));
+        } else {
+            Semaphore permits = new Semaphore(maxConcurrentCalls);
+            for (TSID sensorId : sensorIds) {
+                permits.acquireUninterruptibly();
+                futures.put(sensorId, getDetail(sensorId).whenComplete((detail, ex) -> permits.release()));
+            }
+        }
+
+        Map<TSID, SensorMonitoringOutput> details = new HashMap<>();
+        futures.forEach((sensorId, future) -> {
+            try {
+                details.put(sensorId, future.join());
+            } catch (CompletionException e) {
+                log.warn("Falha ao consultar monitoramento do sensor {}: {}", sensorId, e.getCause().toString());
+            }
+        });
+        return details;
+    }
+
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Map<TSID, SensorMonitoringOutput> getDetailsInBatch(SensorMonitoringBatchClient batchClient,
+                                                                      Set<TSID> sensorIds) {
+        return batchClient.getDetails(sensorIds).stream()
+                .collect(Collectors.toMap(SensorMonitoringOutput::getId, Function.identity(), (first, second) -> second));
+    }
+
+    @Override
+    public void destroy() {
+        if (batcher != null) {
+            batcher.close();
+        }
+        executor.shutdownNow();
+    }
+
+}
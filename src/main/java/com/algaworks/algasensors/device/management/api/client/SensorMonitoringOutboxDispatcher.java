@@ -0,0 +1,186 @@
+package com.algaworks.algasensors.device.management.api.client;
+
+import com.algaworks.algasensors.device.management.domain.model.SensorMonitoringOutboxEntry;
+import com.algaworks.algasensors.device.management.domain.repository.SensorMonitoringOutboxRepository;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.hypersistence.tsid.TSID;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+ * Drena a outbox gravada junto com as alterações de Sensor. Dentro de um lote só a
+ * operação mais recente de cada sensor é enviada: habilitar/desabilitar em sequência
+ * vira uma única chamada com o estado final. As chamadas passam pelo rate limiter
+ * sensorMonitoring, para que uma operação em massa não inunde o serviço de monitoramento.
+ * O lote é reservado (claimed_until) numa transação curta antes das chamadas, então
+ * várias instâncias podem rodar o dispatcher sem enviar a mesma entrada duas vezes.
+ */
+@Slf4j
+@Component
+public class SensorMonitoringOutboxDispatcher {
+
+    private final SensorMonitoringOutboxRepository outboxRepository;
+    private final SensorMonitoringClient sensorMonitoringClient;
+    private final SensorMonitoringBatchClient sensorMonitoringBatchClient;
+    private final SensorMonitoringDetailCache sensorMonitoringDetailCache;
+    private final SensorMonitoringProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final RateLimiter rateLimiter;
+
+    public SensorMonitoringOutboxDispatcher(SensorMonitoringOutboxRepository outboxRepository,
+                                            SensorMonitoringClient sensorMonitoringClient,
+                                            SensorMonitoringBatchClient sensorMonitoringBatchClient,
+                                            SensorMonitoringDetailCache sensorMonitoringDetailCache,
+                                            SensorMonitoringProperties properties,
+                                            TransactionTemplate transactionTemplate,
+                                            RateLimiterRegistry rateLimiterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.sensorMonitoringClient = sensorMonitoringClient;
+        this.sensorMonitoringBatchClient = sensorMonitoringBatchClient;
+        this.sensorMonitoringDetailCache = sensorMonitoringDetailCache;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.rateLimiter = rateLimiterRegistry.rateLimiter(RestClientConfig.SENSOR_MONITORING);
+    }
+
+    @Scheduled(fixedDelayString = "${algasensors.monitoring.outbox.poll-interval:1s}",
+            initialDelayString = "${algasensors.monitoring.outbox.poll-interval:1s}")
+    @Timed(value = "sensor.monitoring.outbox.dispatch", histogram = true)
+    public void dispatch() {
+        List<SensorMonitoringOutboxEntry> claimed = transactionTemplate.execute(status -> claim());
+
+        Map<TSID, SensorMonitoringOutboxEntry> latestBySensor = new LinkedHashMap<>();
+        for (SensorMonitoringOutboxEntry entry : claimed) {
+            latestBySensor.put(entry.getSensorId(), entry);
+        }
+
+        Set<TSID> undispatched = new HashSet<>(latestBySensor.keySet());
+        try {
+            if (properties.getBatch().isEnabled()) {
+                dispatchInBatches(latestBySensor.values(), undispatched);
+                return;
+            }
+            for (SensorMonitoringOutboxEntry entry : latestBySensor.values()) {
+                if (!rateLimiter.acquirePermission()) {
+                    log.debug("Limite de chamadas ao monitoramento atingido, o restante fica para a próxima rodada");
+                    return;
+                }
+                dispatch(entry);
+                undispatched.remove(entry.getSensorId());
+            }
+        } finally {
+            release(claimed, undispatched);
+        }
+    }
+
+    private List<SensorMonitoringOutboxEntry> claim() {
+        SensorMonitoringProperties.Outbox outbox = properties.getOutbox();
+        OffsetDateTime now = OffsetDateTime.now();
+        List<SensorMonitoringOutboxEntry> entries = outboxRepository.findClaimable(now, Limit.of(outbox.getBatchSize()));
+        entries.forEach(entry -> entry.claim(now.plus(outbox.getClaimTimeout())));
+        return entries;
+    }
+
+    // o que ficou para a próxima rodada volta para a fila sem esperar a reserva vencer
+    private void release(List<SensorMonitoringOutboxEntry> claimed, Set<TSID> sensorIds) {
+        if (sensorIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = claimed.stream()
+                .filter(entry -> sensorIds.contains(entry.getSensorId()))
+                .map(SensorMonitoringOutboxEntry::getId)
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.releaseClaims(ids));
+    }
+
+    // uma chamada batch-enable/batch-disable por bloco de max-size entradas; cada bloco consome uma permissão
+    private void dispatchInBatches(Collection<SensorMonitoringOutboxEntry> entries, Set<TSID> undispatched) {
+        Map<SensorMonitoringOutboxEntry.Operation, List<SensorMonitoringOutboxEntry>> byOperation = entries.stream()
+                .collect(Collectors.groupingBy(SensorMonitoringOutboxEntry::getOperation, LinkedHashMap::new, Collectors.toList()));
+        int maxSize = Math.max(1, properties.getBatch().getMaxSize());
+
+        for (var operationEntries : byOperation.entrySet()) {
+            List<SensorMonitoringOutboxEntry> all = operationEntries.getValue();
+            for (int from = 0; from < all.size(); from += maxSize) {
+                if (!rateLimiter.acquirePermission()) {
+                    log.debug("Limite de chamadas ao monitoramento atingido, o restante fica para a próxima rodada");
+                    return;
+                }
+                List<SensorMonitoringOutboxEntry> batch = all.subList(from, Math.min(from + maxSize, all.size()));
+                dispatchBatch(operationEntries.getKey(), batch);
+                batch.forEach(entry -> undispatched.remove(entry.getSensorId()));
+            }
+        }
+    }
+
+    private void dispatchBatch(SensorMonitoringOutboxEntry.Operation operation, List<SensorMonitoringOutboxEntry> batch) {
+        List<TSID> sensorIds = batch.stream().map(SensorMonitoringOutboxEntry::getSensorId).toList();
+        try {
+            switch (operation) {
+                case ENABLE -> sensorMonitoringBatchClient.enableMonitoring(sensorIds);
+                case DISABLE -> sensorMonitoringBatchClient.disableMonitoring(sensorIds);
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(entry -> scheduleRetry(entry, e));
+            return;
+        }
+        sensorIds.forEach(sensorMonitoringDetailCache::invalidate);
+        transactionTemplate.executeWithoutResult(status -> batch.forEach(entry ->
+                outboxRepository.deleteBySensorIdUpTo(entry.getSensorId(), entry.getId())));
+    }
+
+    private void dispatch(SensorMonitoringOutboxEntry entry) {
+        try {
+            switch (entry.getOperation()) {
+                case ENABLE -> sensorMonitoringClient.enableMonitoring(entry.getSensorId());
+                case DISABLE -> sensorMonitoringClient.disableMonitoring(entry.getSensorId());
+            }
+        } catch (RuntimeException e) {
+            scheduleRetry(entry, e);
+            return;
+        }
+        // o estado de monitoramento mudou de fato agora, não quando o sensor foi alterado
+        sensorMonitoringDetailCache.invalidate(entry.getSensorId());
+        transactionTemplate.executeWithoutResult(status ->
+                outboxRepository.deleteBySensorIdUpTo(entry.getSensorId(), entry.getId()));
+    }
+
+    private void scheduleRetry(SensorMonitoringOutboxEntry entry, RuntimeException failure) {
+        if (entry.getAttempts() + 1 >= properties.getOutbox().getMaxAttempts()) {
+            log.error("Falha ao propagar {} do sensor {} após {} tentativas, desistindo: {}",
+                    entry.getOperation(), entry.getSensorId(), entry.getAttempts() + 1, failure.toString());
+            entry.fail(OffsetDateTime.now());
+        } else {
+            Duration backoff = backoff(entry.getAttempts());
+            log.warn("Falha ao propagar {} do sensor {} (tentativa {}), nova tentativa em {}: {}",
+                    entry.getOperation(), entry.getSensorId(), entry.getAttempts() + 1, backoff, failure.toString());
+            entry.scheduleRetry(OffsetDateTime.now().plus(backoff));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxRepository.deleteBySensorIdBefore(entry.getSensorId(), entry.getId());
+            outboxRepository.save(entry);
+        });
+    }
+
+    private Duration backoff(int attempts) {
+        SensorMonitoringProperties.Outbox outbox = properties.getOutbox();
+        Duration backoff = outbox.getInitialBackoff().multipliedBy(1L << Math.min(attempts, 20));
+        return backoff.compareTo(outbox.getMaxBackoff()) > 0 ? outbox.getMaxBackoff() : backoff;
+    }
+
+}
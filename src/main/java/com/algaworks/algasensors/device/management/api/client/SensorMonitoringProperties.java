@@ -0,0 +1,78 @@
+package com.algaworks.algasensors.device.management.api.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "algasensors.monitoring")
+public class SensorMonitoringProperties {
+
+    private String baseUrl = "http://localhost:8082";
+    private ClientType clientType = ClientType.BLOCKING;
+    private Duration connectTimeout = Duration.ofSeconds(3);
+    private Duration readTimeout = Duration.ofSeconds(5);
+    private AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout();
+    private Pool pool = new Pool();
+    private FanOut fanOut = new FanOut();
+    private Outbox outbox = new Outbox();
+    private DetailCache detailCache = new DetailCache();
+    private Batch batch = new Batch();
+
+    public enum ClientType {
+        BLOCKING, REACTIVE
+    }
+
+    @Data
+    public static class AdaptiveTimeout {
+        private boolean enabled = true;
+        private Duration min = Duration.ofMillis(250);
+    }
+
+    @Data
+    public static class Pool {
+        private boolean http2 = false;
+        private int maxConnections = 200;
+        private int maxConnectionsPerRoute = 50;
+        private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+        private Duration idleEviction = Duration.ofSeconds(30);
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class FanOut {
+        private int threads = 16;
+        private int maxConcurrentCalls = 8;
+    }
+
+    @Data
+    public static class Outbox {
+        private Duration pollInterval = Duration.ofSeconds(1);
+        private int batchSize = 100;
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofMinutes(5);
+        // depois disso a entrada fica marcada como falha e não é mais enviada
+        private int maxAttempts = 10;
+        // reserva das entradas de uma rodada; precisa cobrir o tempo das chamadas da rodada
+        private Duration claimTimeout = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class DetailCache {
+        private Duration refreshAfterWrite = Duration.ofSeconds(2);
+        private Duration expireAfterWrite = Duration.ofSeconds(30);
+        private long maximumSize = 10_000;
+    }
+
+    @Data
+    public static class Batch {
+        private boolean enabled = false;
+        private Duration maxDelay = Duration.ofMillis(5);
+        private int maxSize = 100;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.algaworks.algasensors.device.management.api.client;
+
+import com.algaworks.algasensors.device.management.api.client.exception.SensorMonitoringClientBadGatewayException;
+import com.algaworks.algasensors.device.management.api.client.exception.SensorMonitoringClientRejectedException;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/*
+ * Pool do Reactor Netty para o algasensors.monitoring.client-type=reactive; os limites vêm
+ * das mesmas propriedades do pool do Apache HttpClient (o pool do Netty já é por host)
+ */
+@Component
+public class WebClientFactory implements DisposableBean {
+
+    private final WebClient.Builder builder;
+    private final SensorMonitoringProperties properties;
+    private final ConnectionProvider connectionProvider;
+
+    public WebClientFactory(WebClient.Builder builder, SensorMonitoringProperties properties) {
+        this.builder = builder;
+        this.properties = properties;
+        SensorMonitoringProperties.Pool pool = properties.getPool();
+        this.connectionProvider = ConnectionProvider.builder("sensor-monitoring")
+                .maxConnections(pool.getMaxConnectionsPerRoute())
+                .pendingAcquireTimeout(pool.getConnectionRequestTimeout())
+                .maxIdleTime(pool.getKeepAlive())
+                .maxLifeTime(pool.getTimeToLive())
+                .evictInBackground(pool.getIdleEviction())
+                .metrics(true)
+                .build();
+    }
+
+    public WebClient sensorMonitoringWebClient () {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        return builder.clone()
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultStatusHandler(HttpStatusCode::is4xxClientError,
+                        response -> Mono.error(new SensorMonitoringClientRejectedException()))
+                .defaultStatusHandler(HttpStatusCode::isError,
+                        response -> Mono.error(new SensorMonitoringClientBadGatewayException()))
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.disposeLater().block();
+    }
+}
@@ -0,0 +1,8 @@
+package com.algaworks.algasensors.device.management.api.client.exception;
+
+/*
+ * Resposta 4xx do monitoramento: a requisição foi recusada, o serviço está de pé.
+ * Continua sendo 502 para quem chamou, mas não conta como falha para o circuit breaker
+ */
+public class SensorMonitoringClientRejectedException extends SensorMonitoringClientBadGatewayException {
+}
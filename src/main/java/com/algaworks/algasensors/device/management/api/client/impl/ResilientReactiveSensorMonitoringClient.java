@@ -0,0 +1,45 @@
+package com.algaworks.algasensors.device.management.api.client.impl;
+
+import com.algaworks.algasensors.device.management.api.client.ReactiveSensorMonitoringClient;
+import com.algaworks.algasensors.device.management.api.model.SensorMonitoringOutput;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.hypersistence.tsid.TSID;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/*
+ * Mesma ordem do ResilientSensorMonitoringClient: circuit breaker por fora do bulkhead.
+ * A vaga do bulkhead fica presa enquanto a resposta não chega, mas nenhuma thread fica
+ */
+@RequiredArgsConstructor
+public class ResilientReactiveSensorMonitoringClient implements ReactiveSensorMonitoringClient {
+
+    private final ReactiveSensorMonitoringClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    @Override
+    public Mono<Void> enableMonitoring(TSID sensorId) {
+        return call(Mono.defer(() -> delegate.enableMonitoring(sensorId)));
+    }
+
+    @Override
+    public Mono<Void> disableMonitoring(TSID sensorId) {
+        return call(Mono.defer(() -> delegate.disableMonitoring(sensorId)));
+    }
+
+    @Override
+    public Mono<SensorMonitoringOutput> getDetail(TSID sensorId) {
+        return call(Mono.defer(() -> delegate.getDetail(sensorId)));
+    }
+
+    private <T> Mono<T> call(Mono<T> mono) {
+        return mono
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+}
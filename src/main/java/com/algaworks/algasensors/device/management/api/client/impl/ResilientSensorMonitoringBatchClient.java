@@ -0,0 +1,49 @@
+package com.algaworks.algasensors.device.management.api.client.impl;
+
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringBatchClient;
+import com.algaworks.algasensors.device.management.api.model.SensorMonitoringOutput;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.hypersistence.tsid.TSID;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/*
+ * Mesmo circuit breaker e bulkhead do cliente unitário: um lote conta como uma chamada
+ */
+@RequiredArgsConstructor
+public class ResilientSensorMonitoringBatchClient implements SensorMonitoringBatchClient {
+
+    private final SensorMonitoringBatchClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    @Override
+    public void enableMonitoring(Collection<TSID> sensorIds) {
+        call(() -> {
+            delegate.enableMonitoring(sensorIds);
+            return null;
+        });
+    }
+
+    @Override
+    public void disableMonitoring(Collection<TSID> sensorIds) {
+        call(() -> {
+            delegate.disableMonitoring(sensorIds);
+            return null;
+        });
+    }
+
+    @Override
+    public List<SensorMonitoringOutput> getDetails(Collection<TSID> sensorIds) {
+        return call(() -> delegate.getDetails(sensorIds));
+    }
+
+    private <T> T call(Supplier<T> supplier) {
+        return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, supplier)).get();
+    }
+
+}
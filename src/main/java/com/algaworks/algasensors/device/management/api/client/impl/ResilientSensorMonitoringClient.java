@@ -0,0 +1,48 @@
+package com.algaworks.algasensors.device.management.api.client.impl;
+
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringClient;
+import com.algaworks.algasensors.device.management.api.model.SensorMonitoringOutput;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.hypersistence.tsid.TSID;
+import lombok.RequiredArgsConstructor;
+
+import java.util.function.Supplier;
+
+/*
+ * Circuit breaker por fora do bulkhead: com o circuito aberto a chamada falha
+ * antes mesmo de disputar uma vaga no bulkhead
+ */
+@RequiredArgsConstructor
+public class ResilientSensorMonitoringClient implements SensorMonitoringClient {
+
+    private final SensorMonitoringClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    @Override
+    public void enableMonitoring(TSID sensorId) {
+        call(() -> {
+            delegate.enableMonitoring(sensorId);
+            return null;
+        });
+    }
+
+    @Override
+    public void disableMonitoring(TSID sensorId) {
+        call(() -> {
+            delegate.disableMonitoring(sensorId);
+            return null;
+        });
+    }
+
+    @Override
+    public SensorMonitoringOutput getDetail(TSID sensorId) {
+        return call(() -> delegate.getDetail(sensorId));
+    }
+
+    private <T> T call(Supplier<T> supplier) {
+        return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, supplier)).get();
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.algaworks.algasensors.device.management.api.config.batch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "algasensors.batch")
+public class SensorBatchProperties {
+
+    private int chunkSize = 500;
+
+    // job em massa sem heartbeat por esse tempo é dado como falho (a instância que o executava parou)
+    private Duration jobStaleAfter = Duration.ofMinutes(5);
+
+}
@@ -0,0 +1,45 @@
+package com.algaworks.algasensors.device.management.api.config.jackson;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.hypersistence.tsid.TSID;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/*
+ * application/cbor e application/x-jackson-smile com a mesma configuração do JSON, exceto o TSID,
+ * que nos formatos binários vai como long de 64 bits
+ */
+@Configuration
+public class JacksonBinaryFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter (Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryObjectMapper(builder.factory(new CBORFactory())));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter (Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryObjectMapper(builder.factory(new SmileFactory())));
+    }
+
+    // não é @Bean: todo Module no contexto entra também no ObjectMapper do JSON
+    public static Module tsidBinaryModule () {
+        SimpleModule module = new SimpleModule("tsid-binary");
+        module.addSerializer(TSID.class, new TSIDToLongSerializer());
+        module.addDeserializer(TSID.class, new LongToTSIDDeserializer());
+        return module;
+    }
+
+    // o builder já traz o tsidModule do JSON; o módulo registrado por último tem precedência
+    private static ObjectMapper binaryObjectMapper (Jackson2ObjectMapperBuilder builder) {
+        return builder.build().registerModule(tsidBinaryModule());
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.algaworks.algasensors.device.management.api.config.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import io.hypersistence.tsid.TSID;
+
+import java.io.IOException;
+
+/*
+ * Aceita também o texto, para clientes que mandam o id como no JSON
+ */
+public class LongToTSIDDeserializer extends JsonDeserializer<TSID> {
+    @Override
+    public TSID deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            return TSID.from(p.getText());
+        }
+        return TSID.from(p.getLongValue());
+    }
+}
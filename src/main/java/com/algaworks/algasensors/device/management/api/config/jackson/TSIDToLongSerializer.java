@@ -0,0 +1,15 @@
+package com.algaworks.algasensors.device.management.api.config.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import io.hypersistence.tsid.TSID;
+
+import java.io.IOException;
+
+public class TSIDToLongSerializer extends JsonSerializer<TSID> {
+    @Override
+    public void serialize(TSID value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeNumber(value.toLong());
+    }
+}
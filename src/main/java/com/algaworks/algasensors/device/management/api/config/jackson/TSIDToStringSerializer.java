@@ -7,11 +7,31 @@ import io.hypersistence.tsid.TSID;
 
 import java.io.IOException;
 
+/*
+ * Escreve o mesmo texto de TSID.toString() (Crockford base32, 13 caracteres), mas codificando
+ * direto num char[] reaproveitado por thread, sem criar uma String nem um array por id.
+ * Cada thread segura só 13 chars, mesmo as virtuais
+ */
 public class TSIDToStringSerializer extends JsonSerializer<TSID> {
 
+    static final int TSID_CHARS = 13;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[TSID_CHARS]);
+
     @Override
     public void serialize(TSID value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
-        gen.writeString(value.toString());
+        char[] buffer = BUFFER.get();
+        encode(value.toLong(), buffer);
+        gen.writeString(buffer, 0, TSID_CHARS);
+    }
+
+    public static void encode(long value, char[] buffer) {
+        // o primeiro caractere carrega só os 4 bits mais altos
+        for (int i = 0, shift = 60; i < TSID_CHARS; i++, shift -= 5) {
+            buffer[i] = ALPHABET[(int) ((value >>> shift) & 0b11111)];
+        }
     }
 
 }
@@ -0,0 +1,33 @@
+package com.algaworks.algasensors.device.management.api.config.jpa;
+
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/*
+ * Só para o H2 local (ddl-auto, sem Flyway), que pode ter sensores anteriores à coluna name_normalized.
+ * No prod a coluna nasce no baseline e toda escrita passa pelo @PrePersist/@PreUpdate da entidade
+ */
+@Slf4j
+@Component
+@Profile("!prod")
+@RequiredArgsConstructor
+public class SensorNameNormalizationBackfill {
+
+    private final SensorRepository sensorRepository;
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int updated = sensorRepository.backfillNameNormalized();
+        if (updated > 0) {
+            log.info("name_normalized preenchido em {} sensores", updated);
+        }
+    }
+
+}
@@ -1,11 +1,16 @@
 package com.algaworks.algasensors.device.management.api.config.web;
 
 import com.algaworks.algasensors.device.management.api.client.exception.SensorMonitoringClientBadGatewayException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import java.io.IOException;
@@ -43,4 +48,48 @@ public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
         return problemDetail;
     }
 
+    @ExceptionHandler(ResourceAccessException.class)
+    public ProblemDetail handleResourceAccessException (ResourceAccessException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.GATEWAY_TIMEOUT);
+        problemDetail.setTitle("Gateway Timeout");
+        problemDetail.setDetail(ex.getMessage());
+        problemDetail.setType(URI.create("/erros/gateway-timeout"));
+        log.error(ex.getMessage());
+        return problemDetail;
+    }
+
+    // client-type=reactive: timeout de resposta (ReadTimeoutException do Netty) e falha de conexão chegam embrulhados aqui
+    @ExceptionHandler(WebClientRequestException.class)
+    public ProblemDetail handleWebClientRequestException (WebClientRequestException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.GATEWAY_TIMEOUT);
+        problemDetail.setTitle("Gateway Timeout");
+        problemDetail.setDetail(ex.getMessage());
+        problemDetail.setType(URI.create("/erros/gateway-timeout"));
+        log.error(ex.getMessage());
+        return problemDetail;
+    }
+
+    @ExceptionHandler({
+            CallNotPermittedException.class,
+            BulkheadFullException.class
+    })
+    public ProblemDetail handleSensorMonitoringUnavailable (RuntimeException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        problemDetail.setTitle("Service Unavailable");
+        problemDetail.setDetail(ex.getMessage());
+        problemDetail.setType(URI.create("/erros/service-unavailable"));
+        log.error(ex.getMessage());
+        return problemDetail;
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailureException (OptimisticLockingFailureException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+        problemDetail.setTitle("Conflict");
+        problemDetail.setDetail("The resource was modified concurrently, reload it and try again");
+        problemDetail.setType(URI.create("/erros/conflict"));
+        log.warn(ex.getMessage());
+        return problemDetail;
+    }
+
 }
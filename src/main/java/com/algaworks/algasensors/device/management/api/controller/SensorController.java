@@ -1,23 +1,81 @@
 package com.algaworks.algasensors.device.management.api.controller;
 
-import com.algaworks.algasensors.device.management.api.client.SensorMonitoringClient;
+import com.algaworks.algasensors.device.management.api.bulk.SensorBulkJobRunner;
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringDetailCache;
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringDetailCache.CachedSensorMonitoring;
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringFanOut;
+import com.algaworks.algasensors.device.management.api.config.batch.SensorBatchProperties;
+import com.algaworks.algasensors.device.management.api.model.SensorBatchItemOutput;
+import com.algaworks.algasensors.device.management.api.model.SensorBatchOutput;
+import com.algaworks.algasensors.device.management.api.model.SensorBulkFilterInput;
+import com.algaworks.algasensors.device.management.api.model.SensorBulkJobOutput;
+import com.algaworks.algasensors.device.management.api.model.SensorCursorPageOutput;
 import com.algaworks.algasensors.device.management.api.model.SensorDetailOutput;
+import com.algaworks.algasensors.device.management.api.model.SensorFilter;
 import com.algaworks.algasensors.device.management.api.model.SensorInput;
 import com.algaworks.algasensors.device.management.api.model.SensorMonitoringOutput;
 import com.algaworks.algasensors.device.management.api.model.SensorOutput;
+import com.algaworks.algasensors.device.management.api.model.SensorStreamFilter;
+import com.algaworks.algasensors.device.management.api.registry.SensorRegistry;
+import com.algaworks.algasensors.device.management.api.stream.SensorChangeFeed;
+import com.algaworks.algasensors.device.management.api.stream.SensorChangedEvent;
 import com.algaworks.algasensors.device.management.common.IdGenerator;
 import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorBulkJob;
 import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.model.SensorMonitoringOutboxEntry;
+import com.algaworks.algasensors.device.management.domain.model.SensorSummary;
+import com.algaworks.algasensors.device.management.domain.repository.SensorBulkJobRepository;
+import com.algaworks.algasensors.device.management.domain.repository.SensorMonitoringOutboxRepository;
 import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import com.algaworks.algasensors.device.management.domain.repository.SensorSpecifications;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.hypersistence.tsid.TSID;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @RestController
@@ -25,108 +83,583 @@ import org.springframework.web.server.ResponseStatusException;
 @RequiredArgsConstructor
 public class SensorController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+    private static final int MAX_DETAIL_IDS = 100;
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final SensorRepository sensorRepository;
-    private final SensorMonitoringClient sensorMonitoringClient;
+    private final SensorMonitoringOutboxRepository sensorMonitoringOutboxRepository;
+    private final SensorBulkJobRepository sensorBulkJobRepository;
+    private final SensorBulkJobRunner sensorBulkJobRunner;
+    private final SensorMonitoringDetailCache sensorMonitoringDetailCache;
+    private final SensorBatchProperties sensorBatchProperties;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final SensorChangeFeed sensorChangeFeed;
+    private final SensorRegistry sensorRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
 
+    /*
+     * ETag calculado só com ids e versões da página: com If-None-Match igual responde 304
+     * sem mapear nem serializar o conteúdo
+     */
     @GetMapping
-    public Page<SensorOutput> search(@PageableDefault(size = 5, page = 0) Pageable pageable) {
-        var sensors = sensorRepository.findAll(pageable);
-        return sensors.map(this::convertToModelOutput);
+    public ResponseEntity<Page<SensorOutput>> search(SensorFilter filter,
+                                                     @PageableDefault(size = 5, page = 0) Pageable pageable,
+                                                     WebRequest request) {
+        var sensors = sensorRepository.findAll(toSpecification(filter), pageable);
+        String eTag = eTag(sensors);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(sensors.map(SensorController::convertToModelOutput));
+    }
+
+    /*
+     * Sem filtro a página sai da projeção SensorSummary; com filtro o critério entra na mesma
+     * consulta por keyset, para o cursor avançar só sobre os sensores que atendem ao filtro
+     */
+    @GetMapping(params = "after")
+    public SensorCursorPageOutput searchAfter(SensorFilter filter,
+                                              @RequestParam String after,
+                                              @RequestParam(defaultValue = "5") int size,
+                                              @RequestParam(defaultValue = "true") boolean count) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        TSID cursor = parseCursor(after);
+        boolean filtered = hasCriteria(filter);
+
+        // busca um registro a mais só para saber se existe próxima página
+        List<SensorOutput> sensors = filtered
+                ? sensorRepository.findBy(toSpecification(filter).and(SensorSpecifications.idAfter(cursor)),
+                        query -> query.sortBy(Sort.by("id.value")).limit(size + 1).all()).stream()
+                        .map(SensorController::convertToModelOutput)
+                        .toList()
+                : sensorRepository.findSummariesAfter(cursor, PageRequest.ofSize(size + 1)).stream()
+                        .map(SensorController::convertToModelOutput)
+                        .toList();
+        boolean hasNext = sensors.size() > size;
+        if (hasNext) {
+            sensors = sensors.subList(0, size);
+        }
+
+        Long totalElements = null;
+        if (count) {
+            totalElements = filtered ? sensorRepository.count(toSpecification(filter)) : sensorRepository.count();
+        }
+        return SensorCursorPageOutput.builder()
+                .content(sensors)
+                .size(sensors.size())
+                .nextCursor(hasNext ? sensors.get(sensors.size() - 1).getId().toString() : null)
+                .totalElements(totalElements)
+                .build();
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = switch (format) {
+            case "ndjson" -> false;
+            case "csv" -> true;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv");
+        };
+        StreamingResponseBody body = outputStream -> {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<SensorOutput> sensors = sensorRepository.streamAllSummariesOrderById()
+                        .map(SensorController::convertToModelOutput)) {
+                    if (csv) {
+                        writeCsv(sensors, outputStream);
+                    } else {
+                        writeNdjson(sensors, outputStream);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=sensors." + format)
+                .body(body);
+    }
+
+    /*
+     * Alterações feitas pelos endpoints deste controller, publicadas após o commit.
+     * Ao reconectar, o EventSource manda o Last-Event-ID e recebe o que perdeu, se ainda estiver no histórico;
+     * senão recebe "resync" e deve recarregar a listagem
+     */
+    @GetMapping(value = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(SensorStreamFilter filter,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return sensorChangeFeed.subscribe(filter, lastEventId);
+    }
+
+    // resolvidos no SensorRegistry em memória, sem ir ao banco
+    @GetMapping("by-ip/{ip}")
+    public List<SensorOutput> getByIp(@PathVariable String ip) {
+        return sensorRegistry.findByIp(ip);
+    }
+
+    @GetMapping("by-location/{location}")
+    public List<SensorOutput> getByLocation(@PathVariable String location) {
+        return sensorRegistry.findByLocation(location);
     }
 
     @GetMapping("{sensorId}")
-    public SensorOutput get (@PathVariable TSID sensorId) {
+    public ResponseEntity<SensorOutput> get (@PathVariable TSID sensorId, WebRequest request) {
         var sensor = sensorRepository.findById(new SensorId(sensorId)).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND)
         );
-        return convertToModelOutput(sensor);
+        if (request.checkNotModified(eTag(sensor))) {
+            return null;
+        }
+        return toVersionedResponse(sensor);
     }
 
     @GetMapping("{sensorId}/detail")
     public SensorDetailOutput getWithDetail (@PathVariable TSID sensorId) {
-        var sensor = sensorRepository.findById(new SensorId(sensorId)).orElseThrow(
-                () -> new ResponseStatusException(HttpStatus.NOT_FOUND)
-        );
-        var sensorOutput = convertToModelOutput(sensor);
-        var sensorMonitoring = sensorMonitoringClient.getDetail(sensorId);
-        return SensorDetailOutput.builder()
-                .sensor(sensorOutput)
-                .monitoring(sensorMonitoring)
-                .build();
+        // a consulta ao monitoramento só depende do id, então corre em paralelo com a busca no banco
+        var sensorMonitoring = sensorMonitoringDetailCache.getDetail(sensorId);
+        var sensor = sensorRepository.findById(new SensorId(sensorId));
+        if (sensor.isEmpty()) {
+            sensorMonitoringDetailCache.invalidate(sensorId);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return convertToDetailOutput(sensor.get(), SensorMonitoringFanOut.join(sensorMonitoring));
+    }
+
+    @GetMapping("detail")
+    public List<SensorDetailOutput> getWithDetails (@RequestParam List<TSID> ids) {
+        Set<TSID> sensorIds = new LinkedHashSet<>(ids);
+        if (sensorIds.size() > MAX_DETAIL_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_DETAIL_IDS + " ids per request");
+        }
+        Map<TSID, Sensor> sensors = sensorRepository.findAllById(sensorIds.stream().map(SensorId::new).toList())
+                .stream()
+                .collect(Collectors.toMap(sensor -> sensor.getId().getValue(), Function.identity()));
+        var sensorMonitorings = sensorMonitoringDetailCache.getDetails(
+                sensorIds.stream().filter(sensors::containsKey).toList());
+
+        return sensorIds.stream()
+                .map(sensors::get)
+                .filter(Objects::nonNull)
+                .map(sensor -> convertToDetailOutput(sensor, sensorMonitorings.get(sensor.getId().getValue())))
+                .toList();
     }
 
     @PutMapping("{sensorId}")
-    public SensorOutput edit(@PathVariable TSID sensorId, @RequestBody SensorInput input) {
-        var sensorExistente = sensorRepository.findById(new SensorId(sensorId)).orElseThrow(
-                () -> new ResponseStatusException(HttpStatus.NOT_FOUND)
-        );
-        var sensorEditado = Sensor.builder()
-                .id(sensorExistente.getId())
-                .name(input.getName())
-                .ip(input.getIp())
-                .protocol(input.getProtocol())
-                .location(input.getLocation())
-                .model(input.getModel())
-                .enabled(false)
-                .build();
-        sensorEditado = sensorRepository.saveAndFlush(sensorEditado);
-        return convertToModelOutput(sensorEditado);
+    @Transactional
+    public ResponseEntity<SensorOutput> edit(@PathVariable TSID sensorId, @RequestBody SensorInput input,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var sensorExistente = findManagedOrNotFound(sensorId);
+        checkIfMatch(sensorExistente, ifMatch);
+        // substitui os dados cadastrais, mas preserva enabled e version
+        sensorExistente.setName(input.getName());
+        sensorExistente.setIp(input.getIp());
+        sensorExistente.setProtocol(input.getProtocol());
+        sensorExistente.setLocation(input.getLocation());
+        sensorExistente.setModel(input.getModel());
+        return toVersionedResponse(publish(SensorChangedEvent.Type.UPDATED, sensorRepository.saveAndFlush(sensorExistente)));
+    }
+
+    @PatchMapping("{sensorId}")
+    @Transactional
+    public ResponseEntity<SensorOutput> patch(@PathVariable TSID sensorId, @RequestBody SensorInput input,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var sensorExistente = findManagedOrNotFound(sensorId);
+        checkIfMatch(sensorExistente, ifMatch);
+        // só os campos enviados; com @DynamicUpdate o UPDATE leva apenas as colunas alteradas
+        if (input.getName() != null) {
+            sensorExistente.setName(input.getName());
+        }
+        if (input.getIp() != null) {
+            sensorExistente.setIp(input.getIp());
+        }
+        if (input.getProtocol() != null) {
+            sensorExistente.setProtocol(input.getProtocol());
+        }
+        if (input.getLocation() != null) {
+            sensorExistente.setLocation(input.getLocation());
+        }
+        if (input.getModel() != null) {
+            sensorExistente.setModel(input.getModel());
+        }
+        // a entidade já é gerenciada: saveAndFlush não faz merge, só descarrega; a região "sensor" é atualizada no commit
+        return toVersionedResponse(publish(SensorChangedEvent.Type.UPDATED, sensorRepository.saveAndFlush(sensorExistente)));
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public SensorOutput create(@RequestBody SensorInput input) {
-        Sensor sensor = Sensor.builder()
-                .id(new SensorId(IdGenerator.generateTSID()))
-                .name(input.getName())
-                .ip(input.getIp())
-                .protocol(input.getProtocol())
-                .location(input.getLocation())
-                .model(input.getModel())
-                .enabled(false)
-                .build();
+        Sensor sensor = convertToNewSensor(IdGenerator.generateTSID(), input);
 
         sensor = sensorRepository.saveAndFlush(sensor);
 
-        return convertToModelOutput(sensor);
+        return convertToModelOutput(publish(SensorChangedEvent.Type.CREATED, sensor));
+    }
+
+    @PostMapping(value = "batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public SensorBatchOutput createBatch(@RequestBody List<SensorInput> inputs) {
+        return registerInChunks(inputs.iterator());
+    }
+
+    @PostMapping(value = "batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public SensorBatchOutput createBatchFromNdjson(InputStream body) throws IOException {
+        try (MappingIterator<SensorInput> inputs = objectMapper.readerFor(SensorInput.class).readValues(body)) {
+            return registerInChunks(inputs);
+        }
     }
 
     @DeleteMapping("{sensorId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void delete (@PathVariable TSID sensorId) {
         var sensorExistente = sensorRepository.findById(new SensorId(sensorId)).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND)
         );
         sensorRepository.delete(sensorExistente);
-        sensorMonitoringClient.disableMonitoring(sensorId);
+        publish(SensorChangedEvent.Type.DELETED, sensorExistente);
+        sensorMonitoringOutboxRepository.save(
+                SensorMonitoringOutboxEntry.of(sensorId, SensorMonitoringOutboxEntry.Operation.DISABLE));
     }
 
     @PutMapping("{sensorId}/enable")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void enable (@PathVariable TSID sensorId) {
-        var sensorExistente = sensorRepository.findById(new SensorId(sensorId)).orElseThrow(
-                () -> new ResponseStatusException(HttpStatus.NOT_FOUND)
-        );
+        var sensorExistente = findManagedOrNotFound(sensorId);
         sensorExistente.enable();
-        sensorRepository.saveAndFlush(sensorExistente);
-        sensorMonitoringClient.enableMonitoring(sensorId);
+        publish(SensorChangedEvent.Type.ENABLED, sensorRepository.saveAndFlush(sensorExistente));
+        sensorMonitoringOutboxRepository.save(
+                SensorMonitoringOutboxEntry.of(sensorId, SensorMonitoringOutboxEntry.Operation.ENABLE));
     }
 
 
     @DeleteMapping("{sensorId}/enable")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void disable (@PathVariable TSID sensorId) {
-        var sensorExistente = sensorRepository.findById(new SensorId(sensorId)).orElseThrow(
+        var sensorExistente = findManagedOrNotFound(sensorId);
+        sensorExistente.disable();
+        publish(SensorChangedEvent.Type.DISABLED, sensorRepository.saveAndFlush(sensorExistente));
+        sensorMonitoringOutboxRepository.save(
+                SensorMonitoringOutboxEntry.of(sensorId, SensorMonitoringOutboxEntry.Operation.DISABLE));
+    }
+
+
+    @PostMapping("enable")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public SensorBulkJobOutput enableAll (@RequestBody SensorBulkFilterInput filter) {
+        return setEnabled(filter, true);
+    }
+
+    @PostMapping("disable")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public SensorBulkJobOutput disableAll (@RequestBody SensorBulkFilterInput filter) {
+        return setEnabled(filter, false);
+    }
+
+    @GetMapping("jobs/{jobId}")
+    public SensorBulkJobOutput getJob (@PathVariable TSID jobId) {
+        var job = sensorBulkJobRepository.findById(jobId.toLong()).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND)
         );
-        sensorExistente.disable();
-        sensorRepository.saveAndFlush(sensorExistente);
-        sensorMonitoringClient.disableMonitoring(sensorId);
+        return convertToJobOutput(job,
+                sensorMonitoringOutboxRepository.countByJobIdAndFailedAtIsNull(job.getId()),
+                sensorMonitoringOutboxRepository.countByJobIdAndFailedAtIsNotNull(job.getId()));
     }
 
 
-    private SensorOutput convertToModelOutput(Sensor sensor) {
+    private void writeNdjson(Stream<SensorOutput> sensors, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(SensorOutput.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (Iterator<SensorOutput> iterator = sensors.iterator(); iterator.hasNext(); ) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeCsv(Stream<SensorOutput> sensors, OutputStream outputStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        writer.write("id,name,ip,location,protocol,model,enabled\n");
+        for (Iterator<SensorOutput> iterator = sensors.iterator(); iterator.hasNext(); ) {
+            SensorOutput sensor = iterator.next();
+            writer.write(sensor.getId().toString());
+            for (String value : new String[]{sensor.getName(), sensor.getIp(), sensor.getLocation(),
+                    sensor.getProtocol(), sensor.getModel(), Objects.toString(sensor.getEnabled(), null)}) {
+                writer.write(',');
+                writer.write(csvField(value));
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean hasCriteria(SensorFilter filter) {
+        return filter.getLocation() != null
+                || filter.getProtocol() != null
+                || filter.getModel() != null
+                || filter.getEnabled() != null
+                || (filter.getIpPrefix() != null && !filter.getIpPrefix().isBlank())
+                || (filter.getName() != null && !filter.getName().isBlank());
+    }
+
+    private Specification<Sensor> toSpecification(SensorFilter filter) {
+        List<Specification<Sensor>> specifications = new ArrayList<>();
+        if (filter.getLocation() != null) {
+            specifications.add(SensorSpecifications.hasLocation(filter.getLocation()));
+        }
+        if (filter.getProtocol() != null) {
+            specifications.add(SensorSpecifications.hasProtocol(filter.getProtocol()));
+        }
+        if (filter.getModel() != null) {
+            specifications.add(SensorSpecifications.hasModel(filter.getModel()));
+        }
+        if (filter.getEnabled() != null) {
+            specifications.add(SensorSpecifications.isEnabled(filter.getEnabled()));
+        }
+        if (filter.getIpPrefix() != null && !filter.getIpPrefix().isBlank()) {
+            specifications.add(SensorSpecifications.ipStartsWith(filter.getIpPrefix()));
+        }
+        if (filter.getName() != null && !filter.getName().isBlank()) {
+            specifications.add(SensorSpecifications.nameStartsWithIgnoringCase(filter.getName()));
+        }
+        return Specification.allOf(specifications);
+    }
+
+    private Sensor findManagedOrNotFound(TSID sensorId) {
+        return sensorRepository.findById(new SensorId(sensorId)).orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND)
+        );
+    }
+
+    /*
+     * Só conta e registra o job; os UPDATEs e as entradas da outbox saem em blocos pelo SensorBulkJobRunner,
+     * e o dispatcher propaga para o monitoramento com limite de taxa
+     */
+    private SensorBulkJobOutput setEnabled(SensorBulkFilterInput filter, boolean enabled) {
+        boolean filterByIds = filter.getIds() != null && !filter.getIds().isEmpty();
+        if (filter.getLocation() == null && filter.getProtocol() == null && filter.getModel() == null && !filterByIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one filter criterion is required");
+        }
+
+        long total = sensorRepository.countToSetEnabled(filter.getLocation(), filter.getProtocol(),
+                filter.getModel(), filterByIds, filterByIds ? filter.getIds() : List.of(), enabled);
+        var operation = enabled
+                ? SensorMonitoringOutboxEntry.Operation.ENABLE
+                : SensorMonitoringOutboxEntry.Operation.DISABLE;
+        SensorBulkJob job = sensorBulkJobRepository.save(SensorBulkJob.of(operation, Math.toIntExact(total)));
+        sensorBulkJobRunner.submit(job, filter);
+        return convertToJobOutput(job, 0, 0);
+    }
+
+    /*
+     * pending e failed são as entradas da outbox do job; os sensores ainda não alterados também contam
+     * como restantes, inclusive os que ficaram de fora de um job interrompido
+     */
+    private SensorBulkJobOutput convertToJobOutput(SensorBulkJob job, long pending, long failed) {
+        boolean finished = job.getFinishedAt() != null;
+        long notApplied = finished ? 0 : Math.max(0, job.getTotal() - job.getApplied());
+        boolean completed = finished && pending == 0;
+        SensorBulkJobOutput.Status status = job.getFailedAt() != null ? SensorBulkJobOutput.Status.FAILED
+                : completed ? SensorBulkJobOutput.Status.COMPLETED
+                : SensorBulkJobOutput.Status.RUNNING;
+        return SensorBulkJobOutput.builder()
+                .id(TSID.from(job.getId()))
+                .operation(job.getOperation().name())
+                .total(job.getTotal())
+                .processed(job.getApplied() - pending - failed)
+                .failed(failed)
+                .remaining(pending + notApplied)
+                .completed(completed)
+                .status(status)
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .build();
+    }
+
+    // If-Match usa comparação forte (RFC 9110): um ETag fraco (W/) nunca confere
+    private void checkIfMatch(Sensor sensor, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return;
+        }
+        String expected = eTag(sensor);
+        boolean matches = Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(expected::equals);
+        if (!matches) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Sensor version does not match If-Match");
+        }
+    }
+
+    private ResponseEntity<SensorOutput> toVersionedResponse(Sensor sensor) {
+        return ResponseEntity.ok()
+                .eTag(eTag(sensor))
+                .body(convertToModelOutput(sensor));
+    }
+
+    private static String eTag(Sensor sensor) {
+        return "\"" + sensor.getVersion() + "\"";
+    }
+
+    // qualquer criação, exclusão ou alteração (todas incrementam version) muda o hash da página
+    private static String eTag(Page<Sensor> sensors) {
+        long hash = sensors.getTotalElements();
+        hash = 31 * hash + sensors.getNumber();
+        hash = 31 * hash + sensors.getSize();
+        for (Sensor sensor : sensors) {
+            hash = 31 * hash + sensor.getId().getValue().toLong();
+            hash = 31 * hash + Objects.requireNonNullElse(sensor.getVersion(), 0L);
+        }
+        return "\"p" + Long.toHexString(hash) + "\"";
+    }
+
+    private TSID parseCursor(String after) {
+        if (after.isBlank()) {
+            return TSID.from(0L);
+        }
+        if (!TSID.isValid(after)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        return TSID.from(after);
+    }
+
+    private SensorBatchOutput registerInChunks(Iterator<SensorInput> inputs) {
+        int chunkSize = Math.max(1, sensorBatchProperties.getChunkSize());
+        List<SensorBatchItemOutput> items = new ArrayList<>();
+        List<SensorInput> chunk = new ArrayList<>(chunkSize);
+        RuntimeException readFailure = null;
+
+        while (true) {
+            try {
+                if (!inputs.hasNext()) {
+                    break;
+                }
+                chunk.add(inputs.next());
+            } catch (RuntimeException e) {
+                // corpo NDJSON malformado: não há como ressincronizar o restante do stream
+                readFailure = e;
+                break;
+            }
+            if (chunk.size() == chunkSize) {
+                items.addAll(persistChunk(items.size(), chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            items.addAll(persistChunk(items.size(), chunk));
+        }
+        if (readFailure != null) {
+            items.add(failedItem(items.size(), readFailure));
+        }
+
+        int created = (int) items.stream()
+                .filter(item -> item.getStatus() == SensorBatchItemOutput.Status.CREATED)
+                .count();
+        return SensorBatchOutput.builder()
+                .received(items.size())
+                .created(created)
+                .failed(items.size() - created)
+                .items(items)
+                .build();
+    }
+
+    private List<SensorBatchItemOutput> persistChunk(int firstIndex, List<SensorInput> chunk) {
+        List<TSID> ids = IdGenerator.generateTSIDs(chunk.size());
+        List<Sensor> sensors = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            sensors.add(convertToNewSensor(ids.get(i), chunk.get(i)));
+        }
+
+        List<SensorBatchItemOutput> items = new ArrayList<>(chunk.size());
+        try {
+            sensorRepository.persistAll(sensors);
+            for (int i = 0; i < chunk.size(); i++) {
+                publish(SensorChangedEvent.Type.CREATED, sensors.get(i));
+                items.add(createdItem(firstIndex + i, ids.get(i)));
+            }
+            return items;
+        } catch (RuntimeException chunkFailure) {
+            // um item inválido derruba o lote inteiro, então refaz item a item para apontar qual falhou
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    Sensor sensor = convertToNewSensor(ids.get(i), chunk.get(i));
+                    sensorRepository.persistAll(List.of(sensor));
+                    publish(SensorChangedEvent.Type.CREATED, sensor);
+                    items.add(createdItem(firstIndex + i, ids.get(i)));
+                } catch (RuntimeException itemFailure) {
+                    items.add(failedItem(firstIndex + i, itemFailure));
+                }
+            }
+            return items;
+        }
+    }
+
+    // dentro de transação o SensorChangeFeed só recebe o evento depois do commit
+    private Sensor publish(SensorChangedEvent.Type type, Sensor sensor) {
+        eventPublisher.publishEvent(SensorChangedEvent.of(type, convertToModelOutput(sensor)));
+        return sensor;
+    }
+
+    private SensorBatchItemOutput createdItem(int index, TSID id) {
+        return SensorBatchItemOutput.builder()
+                .index(index)
+                .id(id)
+                .status(SensorBatchItemOutput.Status.CREATED)
+                .build();
+    }
+
+    private SensorBatchItemOutput failedItem(int index, RuntimeException failure) {
+        return SensorBatchItemOutput.builder()
+                .index(index)
+                .status(SensorBatchItemOutput.Status.FAILED)
+                .error(NestedExceptionUtils.getMostSpecificCause(failure).getMessage())
+                .build();
+    }
+
+    private Sensor convertToNewSensor(TSID id, SensorInput input) {
+        return Sensor.builder()
+                .id(new SensorId(id))
+                .name(input.getName())
+                .ip(input.getIp())
+                .protocol(input.getProtocol())
+                .location(input.getLocation())
+                .model(input.getModel())
+                .enabled(false)
+                .build();
+    }
+
+    private SensorDetailOutput convertToDetailOutput(Sensor sensor, CachedSensorMonitoring monitoring) {
+        var detail = SensorDetailOutput.builder()
+                .sensor(convertToModelOutput(sensor));
+        if (monitoring != null) {
+            detail.monitoring(monitoring.output())
+                    .monitoringFetchedAt(monitoring.fetchedAt())
+                    .monitoringStale(sensorMonitoringDetailCache.isStale(monitoring));
+        }
+        return detail.build();
+    }
+
+    static SensorOutput convertToModelOutput(Sensor sensor) {
         return SensorOutput.builder()
                 .id(sensor.getId().getValue())
                 .name(sensor.getName())
@@ -138,4 +671,9 @@ public class SensorController {
                 .build();
     }
 
+    static SensorOutput convertToModelOutput(SensorSummary sensor) {
+        return new SensorOutput(sensor.id(), sensor.name(), sensor.ip(), sensor.location(),
+                sensor.protocol(), sensor.model(), sensor.enabled());
+    }
+
 }
@@ -0,0 +1,19 @@
+package com.algaworks.algasensors.device.management.api.model;
+
+import io.hypersistence.tsid.TSID;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SensorBatchItemOutput {
+    private int index;
+    private TSID id;
+    private Status status;
+    private String error;
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+}
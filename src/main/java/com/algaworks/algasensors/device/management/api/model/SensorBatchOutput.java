@@ -0,0 +1,15 @@
+package com.algaworks.algasensors.device.management.api.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SensorBatchOutput {
+    private int received;
+    private int created;
+    private int failed;
+    private List<SensorBatchItemOutput> items;
+}
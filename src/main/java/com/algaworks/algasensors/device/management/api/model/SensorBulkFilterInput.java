@@ -0,0 +1,20 @@
+package com.algaworks.algasensors.device.management.api.model;
+
+import io.hypersistence.tsid.TSID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SensorBulkFilterInput {
+    private String location;
+    private String protocol;
+    private String model;
+    private List<TSID> ids;
+}
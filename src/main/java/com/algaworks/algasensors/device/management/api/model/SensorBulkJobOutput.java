@@ -0,0 +1,25 @@
+package com.algaworks.algasensors.device.management.api.model;
+
+import io.hypersistence.tsid.TSID;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+public class SensorBulkJobOutput {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private TSID id;
+    private String operation;
+    private int total;
+    private long processed;
+    private long failed;
+    private long remaining;
+    private boolean completed;
+    private Status status;
+    private String error;
+    private OffsetDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.algaworks.algasensors.device.management.api.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SensorCursorPageOutput {
+    private List<SensorOutput> content;
+    private int size;
+    private String nextCursor;
+    private Long totalElements;
+}
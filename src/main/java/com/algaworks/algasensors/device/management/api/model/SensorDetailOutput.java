@@ -3,9 +3,13 @@ package com.algaworks.algasensors.device.management.api.model;
 import lombok.Builder;
 import lombok.Data;
 
+import java.time.OffsetDateTime;
+
 @Data
 @Builder
 public class SensorDetailOutput {
     private SensorOutput sensor;
     private SensorMonitoringOutput monitoring;
+    private OffsetDateTime monitoringFetchedAt;
+    private Boolean monitoringStale;
 }
@@ -0,0 +1,13 @@
+package com.algaworks.algasensors.device.management.api.model;
+
+import lombok.Data;
+
+@Data
+public class SensorFilter {
+    private String location;
+    private String protocol;
+    private String model;
+    private Boolean enabled;
+    private String ipPrefix;
+    private String name;
+}
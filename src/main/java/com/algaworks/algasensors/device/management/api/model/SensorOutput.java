@@ -1,11 +1,16 @@
 package com.algaworks.algasensors.device.management.api.model;
 
 import io.hypersistence.tsid.TSID;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
+/*
+ * O construtor com todos os campos é usado na conversão das projeções SensorSummary do SensorRepository
+ */
 @Data
 @Builder
+@AllArgsConstructor
 public class SensorOutput {
     private TSID id;
     private String name;
@@ -0,0 +1,37 @@
+package com.algaworks.algasensors.device.management.api.model;
+
+import com.algaworks.algasensors.device.management.api.stream.SensorChangedEvent;
+import io.hypersistence.tsid.TSID;
+import lombok.Data;
+
+import java.util.Objects;
+import java.util.Set;
+
+@Data
+public class SensorStreamFilter {
+    private Set<TSID> ids;
+    private Set<SensorChangedEvent.Type> types;
+    private String location;
+    private String protocol;
+    private String model;
+
+    /*
+     * Eventos sem o estado do sensor (operações em lote) passam pelos filtros de atributo:
+     * melhor o cliente descartar do que perder a alteração
+     */
+    public boolean matches(SensorChangedEvent event) {
+        if (ids != null && !ids.isEmpty() && !ids.contains(event.sensorId())) {
+            return false;
+        }
+        if (types != null && !types.isEmpty() && !types.contains(event.type())) {
+            return false;
+        }
+        SensorOutput sensor = event.sensor();
+        if (sensor == null) {
+            return true;
+        }
+        return (location == null || Objects.equals(location, sensor.getLocation()))
+                && (protocol == null || Objects.equals(protocol, sensor.getProtocol()))
+                && (model == null || Objects.equals(model, sensor.getModel()));
+    }
+}
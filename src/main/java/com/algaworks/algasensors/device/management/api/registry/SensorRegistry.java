@@ -0,0 +1,402 @@
+package com.algaworks.algasensors.device.management.api.registry;
+
+import com.algaworks.algasensors.device.management.api.model.SensorOutput;
+import com.algaworks.algasensors.device.management.api.stream.SensorChangedEvent;
+import com.algaworks.algasensors.device.management.api.stream.SensorsChangedEvent;
+import com.algaworks.algasensors.device.management.common.LongObjectMap;
+import com.algaworks.algasensors.device.management.domain.model.SensorSummary;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import io.hypersistence.tsid.TSID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/*
+ * Cópia em memória de todos os sensores, indexada pelo long do TSID, por IP e por local.
+ *
+ * Carregada na subida e mantida pelos SensorChangedEvent publicados pelo controller e pelos
+ * SensorsChangedEvent dos jobs em massa (após o commit).
+ * Leitura sem lock: cada alteração gera um Snapshot novo, montado sobre cópias, e troca a referência.
+ * Um bloco do job em massa entra na fila de uma vez e custa uma cópia, não uma por sensor; eventos que
+ * chegam enquanto outra thread monta o snapshot vão no mesmo lote.
+ * A carga completa monta os índices de uma vez, sem cópia por sensor.
+ * Alterações feitas direto no banco ou pelo SensorRepository não passam por aqui.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SensorRegistry {
+
+    private static final int MIN_CANONICAL_LIMIT = 1_024;
+
+    private final SensorRepository sensorRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Queue<List<SensorChangedEvent>> pending = new ConcurrentLinkedQueue<>();
+    // local, protocolo e modelo se repetem muito: uma String por valor, não uma por sensor
+    private Map<String, String> canonical = new HashMap<>();
+    private int canonicalLimit = MIN_CANONICAL_LIMIT;
+    private volatile Snapshot snapshot = Snapshot.empty();
+    private volatile long version;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<SensorSummary> sensors = sensorRepository.streamAllSummariesOrderById()) {
+                load(sensors, (int) Math.min(Integer.MAX_VALUE, sensorRepository.count()));
+            }
+        });
+        log.info("Registro em memória carregado com {} sensores", size());
+    }
+
+    public void load(Stream<SensorSummary> sensors, int expectedSize) {
+        writeLock.lock();
+        try {
+            canonical = new HashMap<>();
+            LongObjectMap<RegisteredSensor> byId = new LongObjectMap<>(expectedSize);
+            sensors.forEach(sensor -> {
+                RegisteredSensor registered = toRegistered(sensor);
+                byId.put(registered.id(), registered);
+            });
+            snapshot = Snapshot.build(byId);
+            version++;
+            canonicalLimit = Math.max(MIN_CANONICAL_LIMIT, canonical.size() * 2);
+        } finally {
+            writeLock.unlock();
+        }
+        applyPending();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSensorChanged(SensorChangedEvent event) {
+        pending.add(List.of(event));
+        applyPending();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSensorsChanged(SensorsChangedEvent event) {
+        pending.add(event.events());
+        applyPending();
+    }
+
+    // quantos snapshots já foram publicados: cada um é uma cópia dos índices
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return snapshot.byId().size();
+    }
+
+    public Optional<SensorOutput> findById(TSID sensorId) {
+        return Optional.ofNullable(snapshot.byId().get(sensorId.toLong())).map(RegisteredSensor::toOutput);
+    }
+
+    public List<SensorOutput> findByIp(String ip) {
+        Snapshot current = snapshot;
+        long ipv4 = parseIpv4(ip);
+        long[] ids = ipv4 >= 0 ? current.byIpv4().get(ipv4) : current.byIp().get(ip);
+        return toOutputs(current, ids);
+    }
+
+    public List<SensorOutput> findByLocation(String location) {
+        Snapshot current = snapshot;
+        return toOutputs(current, current.byLocation().get(location));
+    }
+
+    private static List<SensorOutput> toOutputs(Snapshot snapshot, long[] ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        List<SensorOutput> outputs = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            outputs.add(snapshot.byId().get(id).toOutput());
+        }
+        return outputs;
+    }
+
+    // quem não conseguir o lock deixa o evento na fila para a thread que está montando o snapshot
+    private void applyPending() {
+        while (!pending.isEmpty() && writeLock.tryLock()) {
+            try {
+                Snapshot next = snapshot.copy();
+                List<SensorChangedEvent> events;
+                while ((events = pending.poll()) != null) {
+                    for (SensorChangedEvent event : events) {
+                        apply(next, event);
+                    }
+                }
+                snapshot = next;
+                version++;
+                if (canonical.size() > canonicalLimit) {
+                    recanonicalize(next);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    private void apply(Snapshot next, SensorChangedEvent event) {
+        long id = event.sensorId().toLong();
+        if (event.type() == SensorChangedEvent.Type.DELETED) {
+            RegisteredSensor previous = next.byId().remove(id);
+            if (previous != null) {
+                unindex(next, previous);
+            }
+        } else if (event.sensor() != null) {
+            put(next, toRegistered(event.sensor()));
+        } else {
+            // operações em lote só mandam o id
+            RegisteredSensor previous = next.byId().get(id);
+            if (previous != null) {
+                put(next, previous.withEnabled(event.type() == SensorChangedEvent.Type.ENABLED));
+            }
+        }
+    }
+
+    private void put(Snapshot next, RegisteredSensor sensor) {
+        RegisteredSensor previous = next.byId().put(sensor.id(), sensor);
+        if (previous != null) {
+            if (previous.ipv4() == sensor.ipv4() && Objects.equals(previous.ip(), sensor.ip())
+                    && Objects.equals(previous.location(), sensor.location())) {
+                return;
+            }
+            unindex(next, previous);
+        }
+        if (sensor.ipv4() >= 0) {
+            next.byIpv4().put(sensor.ipv4(), withId(next.byIpv4().get(sensor.ipv4()), sensor.id()));
+        } else if (sensor.ip() != null) {
+            next.byIp().merge(sensor.ip(), new long[]{sensor.id()}, (ids, ignored) -> withId(ids, sensor.id()));
+        }
+        if (sensor.location() != null) {
+            next.byLocation().merge(sensor.location(), new long[]{sensor.id()}, (ids, ignored) -> withId(ids, sensor.id()));
+        }
+    }
+
+    private void unindex(Snapshot next, RegisteredSensor sensor) {
+        if (sensor.ipv4() >= 0) {
+            long[] ids = withoutId(next.byIpv4().get(sensor.ipv4()), sensor.id());
+            if (ids == null) {
+                next.byIpv4().remove(sensor.ipv4());
+            } else {
+                next.byIpv4().put(sensor.ipv4(), ids);
+            }
+        } else if (sensor.ip() != null) {
+            next.byIp().computeIfPresent(sensor.ip(), (ip, ids) -> withoutId(ids, sensor.id()));
+        }
+        if (sensor.location() != null) {
+            next.byLocation().computeIfPresent(sensor.location(), (location, ids) -> withoutId(ids, sensor.id()));
+        }
+    }
+
+    // os arrays dos índices nunca são alterados: snapshots antigos continuam válidos
+    private static long[] withId(long[] ids, long id) {
+        if (ids == null) {
+            return new long[]{id};
+        }
+        for (long current : ids) {
+            if (current == id) {
+                return ids;
+            }
+        }
+        long[] copy = Arrays.copyOf(ids, ids.length + 1);
+        copy[ids.length] = id;
+        return copy;
+    }
+
+    private static long[] withoutId(long[] ids, long id) {
+        if (ids == null) {
+            return null;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                if (ids.length == 1) {
+                    return null;
+                }
+                long[] copy = new long[ids.length - 1];
+                System.arraycopy(ids, 0, copy, 0, i);
+                System.arraycopy(ids, i + 1, copy, i, ids.length - i - 1);
+                return copy;
+            }
+        }
+        return ids;
+    }
+
+    private RegisteredSensor toRegistered(SensorSummary sensor) {
+        return toRegistered(sensor.id(), sensor.name(), sensor.ip(), sensor.location(), sensor.protocol(),
+                sensor.model(), sensor.enabled());
+    }
+
+    private RegisteredSensor toRegistered(SensorOutput sensor) {
+        return toRegistered(sensor.getId(), sensor.getName(), sensor.getIp(), sensor.getLocation(),
+                sensor.getProtocol(), sensor.getModel(), sensor.getEnabled());
+    }
+
+    private RegisteredSensor toRegistered(TSID id, String name, String ip, String location, String protocol,
+                                          String model, Boolean enabled) {
+        long ipv4 = parseIpv4(ip);
+        return new RegisteredSensor(
+                id.toLong(),
+                name,
+                ipv4,
+                ipv4 >= 0 ? null : ip,
+                canonical(location),
+                canonical(protocol),
+                canonical(model),
+                enabled);
+    }
+
+    // valores que sumiram do registro saem do mapa: ele é refeito a partir do snapshot publicado
+    private void recanonicalize(Snapshot current) {
+        Map<String, String> live = new HashMap<>();
+        current.byId().forEach((id, sensor) -> Stream.of(sensor.location(), sensor.protocol(), sensor.model())
+                .filter(Objects::nonNull)
+                .forEach(value -> live.putIfAbsent(value, value)));
+        canonical = live;
+        canonicalLimit = Math.max(MIN_CANONICAL_LIMIT, live.size() * 2);
+    }
+
+    private String canonical(String value) {
+        return value == null ? null : canonical.computeIfAbsent(value, v -> v);
+    }
+
+    /*
+     * IPv4 em notação decimal vira um long entre 0 e 2^32 - 1; qualquer outra coisa (IPv6, nome) devolve -1
+     */
+    static long parseIpv4(String ip) {
+        if (ip == null) {
+            return -1;
+        }
+        long address = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (octet == 0) {
+                    return -1; // zero à esquerda
+                }
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && octets < 3) {
+                address = (address << 8) | octet;
+                octets++;
+                octet = -1;
+            } else {
+                return -1;
+            }
+        }
+        if (octet < 0 || octets != 3) {
+            return -1;
+        }
+        return (address << 8) | octet;
+    }
+
+    static String formatIpv4(long address) {
+        return ((address >>> 24) & 0xFF) + "." + ((address >>> 16) & 0xFF) + "." + ((address >>> 8) & 0xFF) + "." + (address & 0xFF);
+    }
+
+    // ipv4 >= 0 quando o IP é IPv4; nesse caso ip fica nulo e o texto é refeito na leitura
+    private record RegisteredSensor(long id, String name, long ipv4, String ip, String location,
+                                    String protocol, String model, Boolean enabled) {
+
+        RegisteredSensor withEnabled(boolean enabled) {
+            return new RegisteredSensor(id, name, ipv4, ip, location, protocol, model, enabled);
+        }
+
+        SensorOutput toOutput() {
+            return new SensorOutput(TSID.from(id), name, ipv4 >= 0 ? formatIpv4(ipv4) : ip, location,
+                    protocol, model, enabled);
+        }
+    }
+
+    private record Snapshot(LongObjectMap<RegisteredSensor> byId,
+                            LongObjectMap<long[]> byIpv4,
+                            Map<String, long[]> byIp,
+                            Map<String, long[]> byLocation) {
+
+        static Snapshot empty() {
+            return new Snapshot(new LongObjectMap<>(), new LongObjectMap<>(), new HashMap<>(), new HashMap<>());
+        }
+
+        // índices em buffers que crescem por dobra e são congelados no fim: O(n) para a carga toda
+        static Snapshot build(LongObjectMap<RegisteredSensor> byId) {
+            LongObjectMap<IdBuffer> byIpv4 = new LongObjectMap<>(byId.size());
+            Map<String, IdBuffer> byIp = new HashMap<>();
+            Map<String, IdBuffer> byLocation = new HashMap<>();
+            byId.forEach((id, sensor) -> {
+                if (sensor.ipv4() >= 0) {
+                    IdBuffer ids = byIpv4.get(sensor.ipv4());
+                    if (ids == null) {
+                        ids = new IdBuffer();
+                        byIpv4.put(sensor.ipv4(), ids);
+                    }
+                    ids.add(id);
+                } else if (sensor.ip() != null) {
+                    byIp.computeIfAbsent(sensor.ip(), ip -> new IdBuffer()).add(id);
+                }
+                if (sensor.location() != null) {
+                    byLocation.computeIfAbsent(sensor.location(), location -> new IdBuffer()).add(id);
+                }
+            });
+
+            LongObjectMap<long[]> frozenByIpv4 = new LongObjectMap<>(byIpv4.size());
+            byIpv4.forEach((ipv4, ids) -> frozenByIpv4.put(ipv4, ids.toArray()));
+            return new Snapshot(byId, frozenByIpv4, freeze(byIp), freeze(byLocation));
+        }
+
+        private static Map<String, long[]> freeze(Map<String, IdBuffer> buffers) {
+            Map<String, long[]> frozen = new HashMap<>(Math.max(16, (int) (buffers.size() / 0.75f) + 1));
+            buffers.forEach((key, ids) -> frozen.put(key, ids.toArray()));
+            return frozen;
+        }
+
+        Snapshot copy() {
+            return new Snapshot(byId.copy(), byIpv4.copy(), new HashMap<>(byIp), new HashMap<>(byLocation));
+        }
+    }
+
+    private static final class IdBuffer {
+
+        private long[] ids = new long[1];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        // em ordem de id, como ficariam se os sensores fossem indexados um a um
+        long[] toArray() {
+            long[] array = size == ids.length ? ids : Arrays.copyOf(ids, size);
+            Arrays.sort(array);
+            return array;
+        }
+    }
+
+}
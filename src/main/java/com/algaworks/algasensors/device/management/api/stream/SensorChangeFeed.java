@@ -0,0 +1,241 @@
+package com.algaworks.algasensors.device.management.api.stream;
+
+import com.algaworks.algasensors.device.management.api.model.SensorStreamFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Feed de alterações para GET /api/sensors/stream.
+ *
+ * Os eventos só entram depois do commit e ganham um id sequencial; os últimos history-size ficam
+ * num buffer circular para retomar a partir do Last-Event-ID. Cada cliente tem sua fila limitada:
+ * se encher, o que estava pendente é descartado e o cliente recebe "resync" para recarregar o estado
+ */
+@Slf4j
+@Component
+public class SensorChangeFeed implements DisposableBean {
+
+    public static final String EVENT_NAME = "sensor";
+    public static final String RESYNC_EVENT_NAME = "resync";
+
+    private final SensorStreamProperties properties;
+    private final Entry[] history;
+    private long sequence;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // envio bloqueante por cliente: um cliente lento segura só a própria virtual thread
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sensor-stream-", 0).factory());
+    private final Counter resyncs;
+    private volatile boolean closed;
+
+    public SensorChangeFeed(SensorStreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.history = new Entry[Math.max(1, properties.getHistorySize())];
+        Gauge.builder("sensor.stream.subscribers", subscribers, Set::size)
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("sensor.stream.resyncs")
+                .description("Clientes que ficaram para trás e precisaram recarregar o estado")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(SensorStreamFilter filter, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, filter, Math.max(1, properties.getClientBufferSize()));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+
+        // replay e inscrição sob o mesmo lock da publicação: nenhum evento some nem chega duas vezes
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId.trim());
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSensorChanged(SensorChangedEvent event) {
+        synchronized (this) {
+            append(event);
+        }
+    }
+
+    // o cliente continua recebendo um evento por sensor, com ids seguidos
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSensorsChanged(SensorsChangedEvent event) {
+        List<SensorChangedEvent> events = event.events();
+        synchronized (this) {
+            events.forEach(this::append);
+        }
+    }
+
+    private void append(SensorChangedEvent event) {
+        Entry entry = new Entry(++sequence, event);
+        history[(int) (entry.id() % history.length)] = entry;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(entry);
+        }
+    }
+
+    // intervalo lido do próprio SensorStreamProperties, sem repetir o padrão no placeholder
+    @Scheduled(fixedDelayString = "#{@sensorStreamProperties.heartbeat.toMillis()}",
+            initialDelayString = "#{@sensorStreamProperties.heartbeat.toMillis()}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long last;
+        try {
+            last = Long.parseLong(lastEventId);
+        } catch (NumberFormatException e) {
+            subscriber.resync(sequence);
+            return;
+        }
+        long oldest = Math.max(1, sequence - history.length + 1);
+        if (last > sequence || last < oldest - 1) {
+            // id de outra instância/reinício ou já fora do histórico
+            subscriber.resync(sequence);
+            return;
+        }
+        for (long id = last + 1; id <= sequence; id++) {
+            subscriber.offer(history[(int) (id % history.length)]);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        executor.shutdownNow();
+    }
+
+    // event nulo marca o ponto em que o cliente precisa recarregar o estado
+    private record Entry(long id, SensorChangedEvent event) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final SensorStreamFilter filter;
+        private final int capacity;
+        private final ArrayDeque<Entry> pending;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean heartbeat;
+
+        private Subscriber(SseEmitter emitter, SensorStreamFilter filter, int capacity) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.capacity = capacity;
+            this.pending = new ArrayDeque<>(Math.min(capacity, 64));
+        }
+
+        private void offer(Entry entry) {
+            if (!filter.matches(entry.event())) {
+                return;
+            }
+            synchronized (pending) {
+                if (pending.size() >= capacity) {
+                    pending.clear();
+                    pending.add(new Entry(entry.id(), null));
+                    resyncs.increment();
+                } else {
+                    pending.add(entry);
+                }
+            }
+            schedule();
+        }
+
+        private void resync(long id) {
+            synchronized (pending) {
+                pending.clear();
+                pending.add(new Entry(id, null));
+            }
+        }
+
+        private void heartbeat() {
+            heartbeat = true;
+            schedule();
+        }
+
+        // depois do destroy o executor recusa tarefas: o evento é só descartado
+        private void schedule() {
+            if (closed || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                Entry entry;
+                while ((entry = poll()) != null) {
+                    if (entry.event() == null) {
+                        emitter.send(SseEmitter.event().id(Long.toString(entry.id())).name(RESYNC_EVENT_NAME).data(""));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(entry.id()))
+                                .name(EVENT_NAME)
+                                .data(entry.event(), MediaType.APPLICATION_JSON));
+                    }
+                }
+                if (heartbeat) {
+                    heartbeat = false;
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // conexão fechada pelo cliente; completeWithError libera a requisição assíncrona
+                log.debug("Encerrando inscrição do stream de sensores: {}", e.toString());
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // algo pode ter chegado entre o último poll e a liberação da flag
+            if (hasPending()) {
+                schedule();
+            }
+        }
+
+        private Entry poll() {
+            synchronized (pending) {
+                return pending.poll();
+            }
+        }
+
+        private boolean hasPending() {
+            synchronized (pending) {
+                return !pending.isEmpty();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.algaworks.algasensors.device.management.api.stream;
+
+import com.algaworks.algasensors.device.management.api.model.SensorOutput;
+import io.hypersistence.tsid.TSID;
+
+/*
+ * sensor é o estado depois da alteração (no DELETED, o último estado conhecido);
+ * nas operações em lote vem nulo, só com o id
+ */
+public record SensorChangedEvent(Type type, TSID sensorId, SensorOutput sensor) {
+
+    public enum Type {
+        CREATED, UPDATED, ENABLED, DISABLED, DELETED
+    }
+
+    public static SensorChangedEvent of(Type type, SensorOutput sensor) {
+        return new SensorChangedEvent(type, sensor.getId(), sensor);
+    }
+
+    public static SensorChangedEvent of(Type type, TSID sensorId) {
+        return new SensorChangedEvent(type, sensorId, null);
+    }
+
+}
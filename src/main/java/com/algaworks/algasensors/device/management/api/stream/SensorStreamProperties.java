@@ -0,0 +1,19 @@
+package com.algaworks.algasensors.device.management.api.stream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "algasensors.stream")
+public class SensorStreamProperties {
+
+    private int historySize = 1024;
+    private int clientBufferSize = 256;
+    private Duration timeout = Duration.ofMinutes(30);
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+}
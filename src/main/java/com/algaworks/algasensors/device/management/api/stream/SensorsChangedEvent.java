@@ -0,0 +1,23 @@
+package com.algaworks.algasensors.device.management.api.stream;
+
+import io.hypersistence.tsid.TSID;
+
+import java.util.List;
+
+/*
+ * Um bloco da ativação/desativação em massa, publicado uma vez por transação em vez de um
+ * SensorChangedEvent por sensor: quem mantém estado aplica o bloco inteiro de uma vez
+ */
+public record SensorsChangedEvent(SensorChangedEvent.Type type, List<TSID> sensorIds) {
+
+    public SensorsChangedEvent {
+        sensorIds = List.copyOf(sensorIds);
+    }
+
+    public List<SensorChangedEvent> events() {
+        return sensorIds.stream()
+                .map(sensorId -> SensorChangedEvent.of(type, sensorId))
+                .toList();
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.algaworks.algasensors.device.management.common;
+
+import io.hypersistence.tsid.TSID;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Gera TSIDs com o mesmo layout da TSID.Factory (42 bits de tempo + node + contador), mas sem lock:
+ * o par (milissegundo, contador) é tratado como uma única sequência num AtomicLong e avança por CAS.
+ * Os ids são monotônicos para o node inteiro, não só por thread, o que a outbox precisa para manter
+ * a última operação de cada sensor. Se o contador esgotar dentro do milissegundo, segue no próximo.
+ */
+public class AtomicTSIDFactory {
+
+    // 2020-01-01T00:00:00Z, mesma época da TSID.Factory
+    private static final long TSID_EPOCH = 1577836800000L;
+    private static final int RANDOM_BITS = 22;
+    private static final int MAX_NODE_BITS = 20;
+
+    private final long nodeBitsValue;
+    private final int counterBits;
+    private final long counterMask;
+    private final AtomicLong lastSequence = new AtomicLong(-1);
+
+    public AtomicTSIDFactory(int node, int nodeBits) {
+        if (nodeBits < 0 || nodeBits > MAX_NODE_BITS) {
+            throw new IllegalArgumentException("nodeBits must be between 0 and " + MAX_NODE_BITS);
+        }
+        if (node < 0 || node >= (1 << nodeBits)) {
+            throw new IllegalArgumentException("node must fit in " + nodeBits + " bits: " + node);
+        }
+        this.counterBits = RANDOM_BITS - nodeBits;
+        this.counterMask = (1L << counterBits) - 1;
+        this.nodeBitsValue = (long) node << counterBits;
+    }
+
+    public TSID generate() {
+        return toTsid(reserve(1));
+    }
+
+    // um único CAS reserva o bloco inteiro: os ids do bloco são contíguos na sequência do node
+    public List<TSID> generate(int quantity) {
+        long first = reserve(quantity);
+        List<TSID> tsids = new ArrayList<>(quantity);
+        for (int i = 0; i < quantity; i++) {
+            tsids.add(toTsid(first + i));
+        }
+        return tsids;
+    }
+
+    private long reserve(int quantity) {
+        long floor = (System.currentTimeMillis() - TSID_EPOCH) << counterBits;
+        while (true) {
+            long last = lastSequence.get();
+            long first = Math.max(last + 1, floor);
+            if (lastSequence.compareAndSet(last, first + quantity - 1)) {
+                return first;
+            }
+        }
+    }
+
+    private TSID toTsid(long sequence) {
+        long time = sequence >>> counterBits;
+        return TSID.from((time << RANDOM_BITS) | nodeBitsValue | (sequence & counterMask));
+    }
+
+}
@@ -2,11 +2,18 @@ package com.algaworks.algasensors.device.management.common;
 
 import io.hypersistence.tsid.TSID;
 
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 public class IdGenerator {
 
+    private static final int DEFAULT_NODE_BITS = 10;
+    private static final int MAX_NODE_BITS = 20;
+
     private static final TSID.Factory tsidFactory;
+    private static final AtomicTSIDFactory atomicTsidFactory;
 
     static {
 
@@ -16,14 +23,65 @@ public class IdGenerator {
         Optional.ofNullable(System.getenv("tsid.node.count"))
                 .ifPresent(tsidNodeCount -> System.setProperty("tsid.node.count", tsidNodeCount));
 
-        tsidFactory = TSID.Factory.builder().build();
+        Optional.ofNullable(System.getenv("tsid.mode"))
+                .ifPresent(tsidMode -> System.setProperty("tsid.mode", tsidMode));
+
+        if ("atomic".equalsIgnoreCase(System.getProperty("tsid.mode"))) {
+            tsidFactory = null;
+            atomicTsidFactory = createAtomicFactory();
+        } else {
+            tsidFactory = TSID.Factory.builder().build();
+            atomicTsidFactory = null;
+        }
     }
 
     private IdGenerator() {
     }
 
     public static TSID generateTSID() {
-        return tsidFactory.generate();
+        return atomicTsidFactory != null ? atomicTsidFactory.generate() : tsidFactory.generate();
+    }
+
+    public static List<TSID> generateTSIDs(int quantity) {
+        if (atomicTsidFactory != null) {
+            return atomicTsidFactory.generate(quantity);
+        }
+        List<TSID> tsids = new ArrayList<>(quantity);
+        for (int i = 0; i < quantity; i++) {
+            tsids.add(tsidFactory.generate());
+        }
+        return tsids;
+    }
+
+    private static AtomicTSIDFactory createAtomicFactory() {
+        int nodeBits = Optional.ofNullable(System.getProperty("tsid.node.count"))
+                .map(value -> parseIntProperty("tsid.node.count", value))
+                .map(IdGenerator::toNodeBits)
+                .orElse(DEFAULT_NODE_BITS);
+        int node = Optional.ofNullable(System.getProperty("tsid.node"))
+                .map(value -> parseIntProperty("tsid.node", value))
+                .orElseGet(() -> new SecureRandom().nextInt(1 << nodeBits));
+        if (node < 0 || node >= (1 << nodeBits)) {
+            throw new IllegalStateException("tsid.node must be between 0 and " + ((1 << nodeBits) - 1)
+                    + " for " + nodeBits + " node bits: " + node);
+        }
+        return new AtomicTSIDFactory(node, nodeBits);
+    }
+
+    private static int toNodeBits(int nodeCount) {
+        if (nodeCount < 1 || nodeCount > (1 << MAX_NODE_BITS)) {
+            throw new IllegalStateException("tsid.node.count must be between 1 and " + (1 << MAX_NODE_BITS)
+                    + ": " + nodeCount);
+        }
+        return nodeCount == 1 ? 0 : 32 - Integer.numberOfLeadingZeros(nodeCount - 1);
+    }
+
+    private static int parseIntProperty(String name, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(name + " must be an integer: " + value, e);
+        }
     }
 
 }
@@ -0,0 +1,131 @@
+package com.algaworks.algasensors.device.management.common;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/*
+ * Junta chamadas unitárias que chegam dentro de maxDelay (ou até maxBatchSize chaves) em uma
+ * única chamada em lote. Pedidos repetidos da mesma chave no lote aberto recebem o mesmo future;
+ * chaves sem resultado no mapa devolvido falham com NoSuchElementException.
+ */
+public class MicroBatcher<K, V> implements AutoCloseable {
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final Duration maxDelay;
+    private final int maxBatchSize;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    public MicroBatcher(String name, Function<Set<K>, Map<K, V>> batchFunction,
+                        Duration maxDelay, int maxBatchSize, Executor executor) {
+        this.batchFunction = batchFunction;
+        this.maxDelay = maxDelay;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.executor = executor;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<V> submit(K key) {
+        Map<K, CompletableFuture<V>> full = null;
+        CompletableFuture<V> future;
+        lock.lock();
+        try {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (pending.size() == 1) {
+                Map<K, CompletableFuture<V>> batch = pending;
+                scheduler.schedule(() -> flush(batch), maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    // o agendamento só vale para o lote que o criou; se ele já saiu por tamanho, não faz nada
+    private void flush(Map<K, CompletableFuture<V>> batch) {
+        lock.lock();
+        try {
+            if (pending != batch) {
+                return;
+            }
+            takePending();
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    private Map<K, CompletableFuture<V>> takePending() {
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            executor.execute(() -> execute(batch));
+        } catch (RejectedExecutionException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void execute(Map<K, CompletableFuture<V>> batch) {
+        Map<K, V> results;
+        try {
+            results = batchFunction.apply(batch.keySet());
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            return;
+        }
+        batch.forEach((key, future) -> {
+            V value = results.get(key);
+            if (value != null) {
+                future.complete(value);
+            } else {
+                future.completeExceptionally(new NoSuchElementException("No result for " + key));
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        Map<K, CompletableFuture<V>> batch;
+        lock.lock();
+        try {
+            batch = takePending();
+        } finally {
+            lock.unlock();
+        }
+        batch.values().forEach(future -> future.cancel(false));
+    }
+
+}
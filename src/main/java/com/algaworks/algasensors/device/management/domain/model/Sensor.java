@@ -2,19 +2,44 @@ package com.algaworks.algasensors.device.management.domain.model;
 
 import io.hypersistence.tsid.TSID;
 import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.util.Locale;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "sensor")
+@Table(name = "sensor", indexes = {
+        @Index(name = "idx_sensor_location", columnList = "location"),
+        @Index(name = "idx_sensor_protocol", columnList = "protocol"),
+        @Index(name = "idx_sensor_model", columnList = "model"),
+        @Index(name = "idx_sensor_enabled", columnList = "enabled"),
+        @Index(name = "idx_sensor_ip", columnList = "ip"),
+        @Index(name = "idx_sensor_name_normalized", columnList = "name_normalized")
+})
 public class Sensor {
 
     @Id
@@ -27,6 +52,16 @@ public class Sensor {
     private String model;
     private Boolean enabled;
 
+    // nome em minúsculas, para a busca por prefixo sem diferenciar maiúsculas usar índice
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_normalized")
+    private String nameNormalized;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public void enable() {
         this.enabled = true;
     }
@@ -35,4 +70,14 @@ public class Sensor {
         this.enabled = false;
     }
 
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        this.nameNormalized = normalize(this.name);
+    }
+
+    public static String normalize(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
 }
@@ -0,0 +1,90 @@
+package com.algaworks.algasensors.device.management.domain.model;
+
+import com.algaworks.algasensors.device.management.common.IdGenerator;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.OffsetDateTime;
+
+/*
+ * Habilitação/desabilitação em massa. O job roda em segundo plano: applied conta os sensores já
+ * alterados, heartbeatAt avança a cada bloco e finishedAt marca o fim. Um job interrompido fica com
+ * failedAt e error, inclusive quando a instância que o executava parou de mandar heartbeat.
+ * A propagação não é gravada aqui: vem das entradas da outbox com este jobId que ainda estão
+ * pendentes ou falharam.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "sensor_bulk_job")
+public class SensorBulkJob implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private SensorMonitoringOutboxEntry.Operation operation;
+
+    @Column(nullable = false)
+    private Integer total;
+
+    @Column(nullable = false)
+    private Integer applied;
+
+    @Column(nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(nullable = false)
+    private OffsetDateTime heartbeatAt;
+
+    private OffsetDateTime finishedAt;
+
+    private OffsetDateTime failedAt;
+
+    private String error;
+
+    @Transient
+    private boolean persisted;
+
+    public static SensorBulkJob of(SensorMonitoringOutboxEntry.Operation operation, int total) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return SensorBulkJob.builder()
+                .id(IdGenerator.generateTSID().toLong())
+                .operation(operation)
+                .total(total)
+                .applied(0)
+                .createdAt(now)
+                .heartbeatAt(now)
+                .build();
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.algaworks.algasensors.device.management.domain.model;
+
+import com.algaworks.algasensors.device.management.common.IdGenerator;
+import io.hypersistence.tsid.TSID;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.OffsetDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "sensor_monitoring_outbox", indexes = {
+        @Index(name = "idx_sensor_monitoring_outbox_next_attempt", columnList = "next_attempt_at"),
+        @Index(name = "idx_sensor_monitoring_outbox_sensor", columnList = "sensor_id"),
+        @Index(name = "idx_sensor_monitoring_outbox_job", columnList = "job_id")
+})
+public class SensorMonitoringOutboxEntry implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, columnDefinition = "BIGINT")
+    private TSID sensorId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private Operation operation;
+
+    private Long jobId;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    // preenchido quando as tentativas se esgotam: a entrada sai da fila e fica como falha do job
+    private OffsetDateTime failedAt;
+
+    // reserva de uma instância do dispatcher; vencida, a entrada volta para a fila
+    private OffsetDateTime claimedUntil;
+
+    @Transient
+    private boolean persisted;
+
+    public static SensorMonitoringOutboxEntry of(TSID sensorId, Operation operation) {
+        return of(sensorId, operation, null);
+    }
+
+    public static SensorMonitoringOutboxEntry of(TSID sensorId, Operation operation, Long jobId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return SensorMonitoringOutboxEntry.builder()
+                .id(IdGenerator.generateTSID().toLong())
+                .sensorId(sensorId)
+                .jobId(jobId)
+                .operation(operation)
+                .attempts(0)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    // id atribuído pela aplicação: sem isso o save faria merge (SELECT antes do INSERT)
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    public void claim(OffsetDateTime claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+
+    public void scheduleRetry(OffsetDateTime nextAttemptAt) {
+        this.attempts = this.attempts + 1;
+        this.nextAttemptAt = nextAttemptAt;
+        this.claimedUntil = null;
+    }
+
+    public void fail(OffsetDateTime failedAt) {
+        this.attempts = this.attempts + 1;
+        this.failedAt = failedAt;
+        this.claimedUntil = null;
+    }
+
+    public enum Operation {
+        ENABLE,
+        DISABLE
+    }
+
+}
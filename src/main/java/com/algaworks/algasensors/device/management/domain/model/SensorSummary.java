@@ -0,0 +1,16 @@
+package com.algaworks.algasensors.device.management.domain.model;
+
+import io.hypersistence.tsid.TSID;
+
+/*
+ * Projeção JPQL (select new ...) do SensorRepository para leituras em volume: sem entidade gerenciada
+ * e sem snapshot de dirty checking. A API converte para o SensorOutput no controller
+ */
+public record SensorSummary(TSID id,
+                            String name,
+                            String ip,
+                            String location,
+                            String protocol,
+                            String model,
+                            Boolean enabled) {
+}
@@ -0,0 +1,11 @@
+package com.algaworks.algasensors.device.management.domain.repository;
+
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+
+import java.util.Collection;
+
+public interface SensorBatchRepository {
+
+    void persistAll(Collection<Sensor> sensors);
+
+}
@@ -0,0 +1,41 @@
+package com.algaworks.algasensors.device.management.domain.repository;
+
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public class SensorBatchRepositoryImpl implements SensorBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /*
+     * persist direto (sem o merge do save) para que os INSERTs sejam agrupados
+     * pelo hibernate.jdbc.batch_size; os sensores gravados são desanexados para que o contexto
+     * não cresça entre os lotes, sem tirar do contexto o que o chamador carregou na mesma transação.
+     * Cadastro em massa não alimenta o cache de segundo nível.
+     */
+    @Override
+    @Transactional
+    public void persistAll(Collection<Sensor> sensors) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            for (Sensor sensor : sensors) {
+                entityManager.persist(sensor);
+            }
+            // o flush tem de acontecer com IGNORE: é na execução dos INSERTs que o Hibernate decide pelo put
+            entityManager.flush();
+            sensors.forEach(entityManager::detach);
+        } finally {
+            session.setCacheMode(previousCacheMode);
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.algaworks.algasensors.device.management.domain.repository;
+
+import com.algaworks.algasensors.device.management.domain.model.SensorBulkJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+
+@Repository
+public interface SensorBulkJobRepository extends JpaRepository<SensorBulkJob, Long> {
+
+    // zero linhas: o job já foi dado como falho e o bloco não deve ser gravado
+    @Modifying
+    @Query("""
+            update SensorBulkJob j set j.applied = j.applied + :count, j.heartbeatAt = :now
+            where j.id = :jobId and j.failedAt is null""")
+    int addApplied(@Param("jobId") Long jobId, @Param("count") int count, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query("update SensorBulkJob j set j.finishedAt = :finishedAt where j.id = :jobId and j.failedAt is null")
+    int markFinished(@Param("jobId") Long jobId, @Param("finishedAt") OffsetDateTime finishedAt);
+
+    @Modifying
+    @Query("""
+            update SensorBulkJob j set j.failedAt = :failedAt, j.error = :error
+            where j.id = :jobId and j.finishedAt is null and j.failedAt is null""")
+    int markFailed(@Param("jobId") Long jobId, @Param("failedAt") OffsetDateTime failedAt,
+                   @Param("error") String error);
+
+    // jobs cuja instância parou (reinício, queda) sem terminar nem registrar a falha
+    @Modifying
+    @Query("""
+            update SensorBulkJob j set j.failedAt = :failedAt, j.error = :error
+            where j.finishedAt is null and j.failedAt is null and j.heartbeatAt < :staleBefore""")
+    int markStaleAsFailed(@Param("staleBefore") OffsetDateTime staleBefore,
+                          @Param("failedAt") OffsetDateTime failedAt,
+                          @Param("error") String error);
+
+}
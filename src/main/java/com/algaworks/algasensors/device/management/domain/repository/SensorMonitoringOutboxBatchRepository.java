@@ -0,0 +1,11 @@
+package com.algaworks.algasensors.device.management.domain.repository;
+
+import com.algaworks.algasensors.device.management.domain.model.SensorMonitoringOutboxEntry;
+
+import java.util.Collection;
+
+public interface SensorMonitoringOutboxBatchRepository {
+
+    void persistAll(Collection<SensorMonitoringOutboxEntry> entries);
+
+}
@@ -0,0 +1,26 @@
+package com.algaworks.algasensors.device.management.domain.repository;
+
+import com.algaworks.algasensors.device.management.domain.model.SensorMonitoringOutboxEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public class SensorMonitoringOutboxBatchRepositoryImpl implements SensorMonitoringOutboxBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // só as entradas gravadas saem do contexto: o job do chamador continua gerenciado
+    @Override
+    @Transactional
+    public void persistAll(Collection<SensorMonitoringOutboxEntry> entries) {
+        for (SensorMonitoringOutboxEntry entry : entries) {
+            entityManager.persist(entry);
+        }
+        entityManager.flush();
+        entries.forEach(entityManager::detach);
+    }
+
+}
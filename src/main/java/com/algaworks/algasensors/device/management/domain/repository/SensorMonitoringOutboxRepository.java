@@ -0,0 +1,59 @@
+package com.algaworks.algasensors.device.management.domain.repository;
+
+import com.algaworks.algasensors.device.management.domain.model.SensorMonitoringOutboxEntry;
+import io.hypersistence.tsid.TSID;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SensorMonitoringOutboxRepository extends JpaRepository<SensorMonitoringOutboxEntry, Long>,
+        SensorMonitoringOutboxBatchRepository {
+
+    /*
+     * Entradas prontas e sem reserva válida, travadas com FOR UPDATE SKIP LOCKED (lock timeout -2):
+     * duas instâncias nunca pegam a mesma linha. Também fica de fora o sensor que ainda tem
+     * uma entrada anterior reservada, para a operação nova não ultrapassar a que está em voo.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("""
+            select e from SensorMonitoringOutboxEntry e
+            where e.failedAt is null
+              and e.nextAttemptAt <= :now
+              and (e.claimedUntil is null or e.claimedUntil <= :now)
+              and not exists (select o.id from SensorMonitoringOutboxEntry o
+                              where o.sensorId = e.sensorId and o.id < e.id and o.claimedUntil > :now)
+            order by e.id
+            """)
+    List<SensorMonitoringOutboxEntry> findClaimable(@Param("now") OffsetDateTime now, Limit limit);
+
+    @Modifying
+    @Query("update SensorMonitoringOutboxEntry e set e.claimedUntil = null where e.id in :ids")
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+
+    long countByJobIdAndFailedAtIsNull(Long jobId);
+
+    long countByJobIdAndFailedAtIsNotNull(Long jobId);
+
+    @Modifying
+    @Query("delete from SensorMonitoringOutboxEntry e where e.sensorId = :sensorId and e.id <= :upToId")
+    int deleteBySensorIdUpTo(@Param("sensorId") TSID sensorId, @Param("upToId") Long upToId);
+
+    @Modifying
+    @Query("delete from SensorMonitoringOutboxEntry e where e.sensorId = :sensorId and e.id < :beforeId")
+    int deleteBySensorIdBefore(@Param("sensorId") TSID sensorId, @Param("beforeId") Long beforeId);
+
+}
@@ -2,9 +2,91 @@ package com.algaworks.algasensors.device.management.domain.repository;
 
 import com.algaworks.algasensors.device.management.domain.model.Sensor;
 import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.model.SensorSummary;
+import io.hypersistence.tsid.TSID;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface SensorRepository extends JpaRepository<Sensor, SensorId> {
+public interface SensorRepository extends JpaRepository<Sensor, SensorId>, JpaSpecificationExecutor<Sensor>,
+        SensorBatchRepository {
+
+    String SEARCH_QUERY_REGION = "sensor-search";
+
+    /*
+     * Cache de consultas do Hibernate só para a listagem filtrada, numa região própria e limitada:
+     * guarda os ids de cada página, as entidades vêm da região "sensor". Qualquer escrita em Sensor
+     * invalida a região (pelos timestamps), então só vale para o padrão de muitas leituras repetidas
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SEARCH_QUERY_REGION)
+    })
+    Page<Sensor> findAll(Specification<Sensor> specification, Pageable pageable);
+
+    // Projeções num record de domínio: sem entidade gerenciada, sem snapshot de dirty checking e sem builder
+    String SUMMARY_PROJECTION = "select new com.algaworks.algasensors.device.management.domain.model.SensorSummary("
+            + "s.id.value, s.name, s.ip, s.location, s.protocol, s.model, s.enabled) from Sensor s ";
+
+    @Query(SUMMARY_PROJECTION + "where s.id.value > :after order by s.id.value")
+    List<SensorSummary> findSummariesAfter(@Param("after") TSID after, Pageable pageable);
+
+    // Cursor só de avanço para exportação; precisa de transação aberta e deve ser fechado
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_PROJECTION + "order by s.id.value")
+    Stream<SensorSummary> streamAllSummariesOrderById();
+
+    // Só os sensores que de fato mudam de estado; ids vazio significa sem filtro por id
+    String TO_SET_ENABLED = """
+            where (:location is null or s.location = :location)
+              and (:protocol is null or s.protocol = :protocol)
+              and (:model is null or s.model = :model)
+              and (:filterByIds = false or s.id.value in :ids)
+              and (s.enabled is null or s.enabled <> :enabled)
+            """;
+
+    @Query("select count(s) from Sensor s " + TO_SET_ENABLED)
+    long countToSetEnabled(@Param("location") String location,
+                           @Param("protocol") String protocol,
+                           @Param("model") String model,
+                           @Param("filterByIds") boolean filterByIds,
+                           @Param("ids") Collection<TSID> ids,
+                           @Param("enabled") boolean enabled);
+
+    // Percorre por keyset: cada bloco é lido, alterado e gravado na outbox em sua própria transação
+    @Query("select s.id.value from Sensor s " + TO_SET_ENABLED + " and s.id.value > :after order by s.id.value")
+    List<TSID> findIdsToSetEnabledAfter(@Param("location") String location,
+                                        @Param("protocol") String protocol,
+                                        @Param("model") String model,
+                                        @Param("filterByIds") boolean filterByIds,
+                                        @Param("ids") Collection<TSID> ids,
+                                        @Param("enabled") boolean enabled,
+                                        @Param("after") TSID after,
+                                        Pageable pageable);
+
+    // name_normalized só é preenchido pelos callbacks da entidade
+    @Modifying
+    @Query("update Sensor s set s.nameNormalized = lower(s.name) where s.nameNormalized is null and s.name is not null")
+    int backfillNameNormalized();
+
+    // UPDATE em massa: o Hibernate invalida a região "sensor" do cache de segundo nível
+    @Modifying
+    @Query("update Sensor s set s.enabled = :enabled, s.version = s.version + 1 where s.id.value in :ids")
+    int updateEnabled(@Param("ids") Collection<TSID> ids, @Param("enabled") boolean enabled);
+
 }
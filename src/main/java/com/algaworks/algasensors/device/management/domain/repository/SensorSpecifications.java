@@ -0,0 +1,49 @@
+package com.algaworks.algasensors.device.management.domain.repository;
+
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import io.hypersistence.tsid.TSID;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class SensorSpecifications {
+
+    private SensorSpecifications() {
+    }
+
+    public static Specification<Sensor> hasLocation(String location) {
+        return (root, query, builder) -> builder.equal(root.get("location"), location);
+    }
+
+    public static Specification<Sensor> hasProtocol(String protocol) {
+        return (root, query, builder) -> builder.equal(root.get("protocol"), protocol);
+    }
+
+    public static Specification<Sensor> hasModel(String model) {
+        return (root, query, builder) -> builder.equal(root.get("model"), model);
+    }
+
+    public static Specification<Sensor> isEnabled(boolean enabled) {
+        return (root, query, builder) -> builder.equal(root.get("enabled"), enabled);
+    }
+
+    // Condição do keyset: combinada com a ordenação por id, continua a página a partir do cursor
+    public static Specification<Sensor> idAfter(TSID after) {
+        return (root, query, builder) -> builder.greaterThan(root.get("id").<TSID>get("value"), after);
+    }
+
+    // LIKE com prefixo constante vira busca por faixa no índice
+    public static Specification<Sensor> ipStartsWith(String prefix) {
+        return (root, query, builder) -> builder.like(root.get("ip"), escapeLike(prefix) + "%", '\\');
+    }
+
+    public static Specification<Sensor> nameStartsWithIgnoringCase(String prefix) {
+        return (root, query, builder) -> builder.like(root.get("nameNormalized"),
+                escapeLike(Sensor.normalize(prefix)) + "%", '\\');
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+}
@@ -0,0 +1,49 @@
+create table sensor (
+    id bigint not null,
+    name varchar(255),
+    name_normalized varchar(255),
+    ip varchar(255),
+    location varchar(255),
+    protocol varchar(255),
+    model varchar(255),
+    enabled boolean,
+    version bigint default 0 not null,
+    constraint pk_sensor primary key (id)
+);
+
+create index idx_sensor_location on sensor (location);
+create index idx_sensor_protocol on sensor (protocol);
+create index idx_sensor_model on sensor (model);
+create index idx_sensor_enabled on sensor (enabled);
+create index idx_sensor_ip on sensor (ip);
+create index idx_sensor_name_normalized on sensor (name_normalized);
+
+create table sensor_monitoring_outbox (
+    id bigint not null,
+    sensor_id bigint not null,
+    operation varchar(16) not null,
+    job_id bigint,
+    attempts integer not null,
+    created_at timestamp(6) with time zone not null,
+    next_attempt_at timestamp(6) with time zone not null,
+    failed_at timestamp(6) with time zone,
+    claimed_until timestamp(6) with time zone,
+    constraint pk_sensor_monitoring_outbox primary key (id)
+);
+
+create index idx_sensor_monitoring_outbox_next_attempt on sensor_monitoring_outbox (next_attempt_at);
+create index idx_sensor_monitoring_outbox_sensor on sensor_monitoring_outbox (sensor_id);
+create index idx_sensor_monitoring_outbox_job on sensor_monitoring_outbox (job_id);
+
+create table sensor_bulk_job (
+    id bigint not null,
+    operation varchar(16) not null,
+    total integer not null,
+    applied integer default 0 not null,
+    created_at timestamp(6) with time zone not null,
+    heartbeat_at timestamp(6) with time zone not null,
+    finished_at timestamp(6) with time zone,
+    failed_at timestamp(6) with time zone,
+    error varchar(255),
+    constraint pk_sensor_bulk_job primary key (id)
+);
@@ -0,0 +1,53 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.client.AdaptiveTimeout;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class AdaptiveTimeoutTest {
+
+    @Test
+    void deveComecarNoTimeoutMaximo() {
+        AdaptiveTimeout timeout = new AdaptiveTimeout(Duration.ofMillis(250), Duration.ofSeconds(5));
+        Assertions.assertThat(timeout.current()).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void deveAcompanharLatenciaObservadaRespeitandoOMinimo() {
+        AdaptiveTimeout timeout = new AdaptiveTimeout(Duration.ofMillis(250), Duration.ofSeconds(5));
+        for (int i = 0; i < 50; i++) {
+            timeout.record(Duration.ofMillis(20));
+        }
+        Assertions.assertThat(timeout.current()).isEqualTo(Duration.ofMillis(250));
+
+        for (int i = 0; i < 50; i++) {
+            timeout.record(Duration.ofMillis(400));
+        }
+        Assertions.assertThat(timeout.current()).isBetween(Duration.ofMillis(400), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void deveDobrarTimeoutAposTimeoutsERecuperar() {
+        AdaptiveTimeout timeout = new AdaptiveTimeout(Duration.ofMillis(250), Duration.ofSeconds(5));
+        for (int i = 0; i < 50; i++) {
+            timeout.record(Duration.ofMillis(20));
+        }
+        Assertions.assertThat(timeout.current()).isEqualTo(Duration.ofMillis(250));
+
+        // serviço passou a responder em 400 ms: as chamadas estouram até o backoff passar da latência
+        timeout.recordTimeout();
+        Assertions.assertThat(timeout.current()).isEqualTo(Duration.ofMillis(500));
+        for (int i = 0; i < 10; i++) {
+            timeout.recordTimeout();
+        }
+        Assertions.assertThat(timeout.current()).isEqualTo(Duration.ofSeconds(5));
+
+        for (int i = 0; i < 50; i++) {
+            timeout.record(Duration.ofMillis(400));
+        }
+        Assertions.assertThat(timeout.current()).isBetween(Duration.ofMillis(400), Duration.ofSeconds(5));
+    }
+
+}
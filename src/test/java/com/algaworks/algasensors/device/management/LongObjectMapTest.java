@@ -0,0 +1,41 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.common.LongObjectMap;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class LongObjectMapTest {
+
+    @Test
+    void deveComportarSeComoHashMap() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Map<Long, String> esperado = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            // poucas chaves para forçar colisões, remoções no meio das sequências e redimensionamentos
+            long key = random.nextInt(5_000) * 1_024L;
+            if (random.nextInt(3) == 0) {
+                Assertions.assertThat(map.remove(key)).isEqualTo(esperado.remove(key));
+            } else {
+                String value = "v" + i;
+                Assertions.assertThat(map.put(key, value)).isEqualTo(esperado.put(key, value));
+            }
+        }
+        Assertions.assertThat(map.size()).isEqualTo(esperado.size());
+        esperado.forEach((key, value) -> Assertions.assertThat(map.get(key)).isEqualTo(value));
+
+        Map<Long, String> percorrido = new HashMap<>();
+        map.forEach(percorrido::put);
+        Assertions.assertThat(percorrido).isEqualTo(esperado);
+
+        LongObjectMap<String> copia = map.copy();
+        esperado.keySet().forEach(map::remove);
+        Assertions.assertThat(map.size()).isZero();
+        Assertions.assertThat(copia.size()).isEqualTo(esperado.size());
+    }
+
+}
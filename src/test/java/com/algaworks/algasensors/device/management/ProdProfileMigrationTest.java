@@ -0,0 +1,52 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import io.hypersistence.tsid.TSID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/*
+ * Profile prod com H2 em modo PostgreSQL no lugar do banco real: o Flyway aplica as
+ * migrações e o ddl-auto=validate confere que elas batem com as entidades
+ */
+@SpringBootTest(properties = {
+        ProdProfileMigrationTest.H2_POSTGRESQL_URL,
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "algasensors.monitoring.outbox.poll-interval=1h"
+})
+@ActiveProfiles("prod")
+class ProdProfileMigrationTest {
+
+    static final String H2_POSTGRESQL_URL = "spring.datasource.url=jdbc:h2:mem:prod;MODE=PostgreSQL;"
+            + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveAplicarMigracoesCompativeisComAsEntidades() {
+        Integer migracoes = jdbcTemplate.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where \"success\" = true", Integer.class);
+        Assertions.assertThat(migracoes).isPositive();
+
+        Sensor sensor = sensorRepository.save(Sensor.builder()
+                .id(new SensorId(TSID.fast()))
+                .name("Sensor Prod")
+                .enabled(false)
+                .build());
+        Assertions.assertThat(sensorRepository.findById(sensor.getId())).isPresent();
+    }
+
+}
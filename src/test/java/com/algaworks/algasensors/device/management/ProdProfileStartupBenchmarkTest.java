@@ -0,0 +1,104 @@
+package com.algaworks.algasensors.device.management;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Executar com ./gradlew benchmark
+ *
+ * Compara o tempo de subida e a vazão de POST + GET entre o profile test (ddl-auto, show-sql)
+ * e o profile prod (Flyway + validate, Hikari dimensionado), ambos sobre H2 em memória.
+ */
+@Tag("benchmark")
+class ProdProfileStartupBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdProfileStartupBenchmarkTest.class);
+
+    private static final Pattern ID = Pattern.compile("\"id\":\"([^\"]+)\"");
+    private static final int CONCURRENCY = 32;
+    private static final int REQUESTS = 5_000;
+
+    @Test
+    void compararProfiles() throws Exception {
+        run("test", new String[]{"test"},
+                "spring.datasource.url=jdbc:h2:mem:startup-test;DB_CLOSE_DELAY=-1");
+        run("prod", new String[]{"prod"},
+                "spring.datasource.url=jdbc:h2:mem:startup-prod;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driverClassName=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+    }
+
+    private void run(String name, String[] profiles, String... properties) throws Exception {
+        List<String> allProperties = new ArrayList<>(List.of(properties));
+        allProperties.add("server.port=0");
+        allProperties.add("algasensors.monitoring.outbox.poll-interval=1h");
+
+        long inicio = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DeviceManagementApplication.class)
+                .profiles(profiles)
+                .properties(allProperties.toArray(String[]::new))
+                .run()) {
+            long startupMs = (System.nanoTime() - inicio) / 1_000_000;
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            HttpClient httpClient = HttpClient.newHttpClient();
+            AtomicInteger errors = new AtomicInteger();
+            long inicioCarga = System.nanoTime();
+            try (ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY)) {
+                List<Future<?>> futures = new ArrayList<>(REQUESTS);
+                for (int i = 0; i < REQUESTS; i++) {
+                    int request = i;
+                    futures.add(executor.submit(() -> {
+                        HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/sensors"))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString("""
+                                                {"name":"Sensor %d","ip":"10.0.0.1","location":"Planta","protocol":"MQTT","model":"S-100"}"""
+                                                .formatted(request)))
+                                        .build(),
+                                HttpResponse.BodyHandlers.ofString());
+                        Matcher id = ID.matcher(created.body());
+                        if (created.statusCode() != 201 || !id.find()) {
+                            errors.incrementAndGet();
+                            return null;
+                        }
+                        HttpResponse<Void> found = httpClient.send(
+                                HttpRequest.newBuilder(URI.create(baseUrl + "/api/sensors/" + id.group(1))).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (found.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            long cargaMs = (System.nanoTime() - inicioCarga) / 1_000_000;
+
+            log.info("profile {}: subida = {} ms, {} POST + GET em {} ms ({} pares/s), erros = {}",
+                    name, startupMs, REQUESTS, cargaMs, REQUESTS * 1000L / Math.max(1, cargaMs), errors.get());
+        }
+    }
+
+}
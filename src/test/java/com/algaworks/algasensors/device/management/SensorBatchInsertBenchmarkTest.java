@@ -0,0 +1,89 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.model.SensorInput;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Executar com ./gradlew benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SensorBatchInsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorBatchInsertBenchmarkTest.class);
+
+    private static final int SENSORS = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        sensorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compararInsercoesIndividuaisComLote() throws Exception {
+        List<SensorInput> inputs = new ArrayList<>(SENSORS);
+        for (int i = 0; i < SENSORS; i++) {
+            inputs.add(SensorInput.builder()
+                    .name("Sensor " + i)
+                    .ip("10.0." + (i / 256) + "." + (i % 256))
+                    .protocol("MQTT")
+                    .location("Planta " + (i % 10))
+                    .model("S-100")
+                    .build());
+        }
+
+        long inicio = System.nanoTime();
+        for (SensorInput input : inputs) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/api/sensors")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(input)))
+                    .andExpect(MockMvcResultMatchers.status().isCreated());
+        }
+        long individualMs = (System.nanoTime() - inicio) / 1_000_000;
+        Assertions.assertThat(sensorRepository.count()).isEqualTo(SENSORS);
+
+        sensorRepository.deleteAllInBatch();
+
+        inicio = System.nanoTime();
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sensors/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputs)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(SENSORS));
+        long loteMs = (System.nanoTime() - inicio) / 1_000_000;
+        Assertions.assertThat(sensorRepository.count()).isEqualTo(SENSORS);
+
+        log.info("{} sensores: POST individual = {} ms, POST /batch = {} ms ({}x)",
+                SENSORS, individualMs, loteMs, String.format("%.1f", (double) individualMs / Math.max(1, loteMs)));
+    }
+
+}
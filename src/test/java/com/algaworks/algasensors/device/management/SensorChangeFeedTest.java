@@ -0,0 +1,28 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.model.SensorStreamFilter;
+import com.algaworks.algasensors.device.management.api.stream.SensorChangeFeed;
+import com.algaworks.algasensors.device.management.api.stream.SensorChangedEvent;
+import com.algaworks.algasensors.device.management.api.stream.SensorStreamProperties;
+import io.hypersistence.tsid.TSID;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SensorChangeFeedTest {
+
+    @Test
+    void deveIgnorarAlteracoesDepoisDeEncerrado() {
+        SensorChangeFeed feed = new SensorChangeFeed(new SensorStreamProperties(), new SimpleMeterRegistry());
+        feed.subscribe(new SensorStreamFilter(), null);
+        feed.destroy();
+
+        // com o executor encerrado, publicar ou inscrever não pode lançar RejectedExecutionException
+        Assertions.assertThatCode(() -> {
+            feed.onSensorChanged(SensorChangedEvent.of(SensorChangedEvent.Type.ENABLED, TSID.fast()));
+            feed.heartbeat();
+            feed.subscribe(new SensorStreamFilter(), "1");
+        }).doesNotThrowAnyException();
+    }
+
+}
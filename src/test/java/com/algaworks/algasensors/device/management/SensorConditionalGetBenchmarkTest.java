@@ -0,0 +1,144 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.common.IdGenerator;
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import io.hypersistence.tsid.TSID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ * Executar com ./gradlew benchmark
+ *
+ * Repete o polling dos dashboards (páginas da listagem + sensores individuais), alterando alguns
+ * sensores entre as rodadas, e compara bytes recebidos e CPU do processo com e sem If-None-Match + gzip
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class SensorConditionalGetBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorConditionalGetBenchmarkTest.class);
+
+    private static final int SENSORS = 2_000;
+    private static final int PAGES = 5;
+    private static final int PAGE_SIZE = 100;
+    private static final int SINGLE_POLLS = 50;
+    private static final int CHANGES_PER_ROUND = 5;
+    private static final int ROUNDS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private List<TSID> ids;
+
+    @BeforeEach
+    void setUp() {
+        sensorRepository.deleteAllInBatch();
+        ids = IdGenerator.generateTSIDs(SENSORS);
+        List<Sensor> sensors = new ArrayList<>();
+        for (TSID id : ids) {
+            sensors.add(Sensor.builder()
+                    .id(new SensorId(id))
+                    .name("Sensor " + id)
+                    .ip("10.0.0.1")
+                    .protocol("MQTT")
+                    .location("Planta")
+                    .model("S-100")
+                    .enabled(false)
+                    .build());
+        }
+        sensorRepository.persistAll(sensors);
+    }
+
+    @Test
+    void compararPollingComESemGetCondicional() throws Exception {
+        run("sem ETag e sem gzip", false);
+        run("If-None-Match + gzip", true);
+    }
+
+    private void run(String name, boolean conditional) throws Exception {
+        Map<String, String> eTags = new HashMap<>();
+        Random random = new Random(42);
+        long bytes = 0;
+        int requests = 0;
+        int notModified = 0;
+
+        long cpuInicio = processCpuNanos();
+        long inicio = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            List<String> paths = new ArrayList<>();
+            for (int page = 0; page < PAGES; page++) {
+                paths.add("/api/sensors?size=" + PAGE_SIZE + "&page=" + page);
+            }
+            for (int i = 0; i < SINGLE_POLLS; i++) {
+                paths.add("/api/sensors/" + ids.get(i));
+            }
+
+            for (String path : paths) {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+                if (conditional) {
+                    request.header("Accept-Encoding", "gzip");
+                    String eTag = eTags.get(path);
+                    if (eTag != null) {
+                        request.header("If-None-Match", eTag);
+                    }
+                }
+                HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                requests++;
+                bytes += response.body().length;
+                if (response.statusCode() == 304) {
+                    notModified++;
+                }
+                response.headers().firstValue("ETag").ifPresent(eTag -> eTags.put(path, eTag));
+            }
+
+            // alguns sensores mudam entre uma rodada e outra
+            for (int i = 0; i < CHANGES_PER_ROUND; i++) {
+                TSID id = ids.get(random.nextInt(SENSORS));
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/sensors/" + id))
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"name\":\"Sensor alterado " + round + "\"}"))
+                        .header("Content-Type", "application/json")
+                        .build();
+                httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+        }
+        long totalMs = (System.nanoTime() - inicio) / 1_000_000;
+        long cpuMs = (processCpuNanos() - cpuInicio) / 1_000_000;
+
+        log.info("{}: {} requisições, {} respostas 304, {} KB recebidos, {} ms, CPU do processo = {} ms",
+                name, requests, notModified, bytes / 1024, totalMs, cpuMs);
+    }
+
+    // inclui o próprio cliente HTTP do teste, que roda na mesma JVM
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+
+}
@@ -1,11 +1,20 @@
 package com.algaworks.algasensors.device.management;
 
+import com.algaworks.algasensors.device.management.api.bulk.SensorBulkJobRunner;
+import com.algaworks.algasensors.device.management.api.config.jpa.SensorNameNormalizationBackfill;
+import com.algaworks.algasensors.device.management.api.model.SensorBulkFilterInput;
 import com.algaworks.algasensors.device.management.api.model.SensorInput;
 import com.algaworks.algasensors.device.management.common.IdGenerator;
 import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorBulkJob;
 import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.model.SensorMonitoringOutboxEntry;
+import com.algaworks.algasensors.device.management.domain.repository.SensorBulkJobRepository;
 import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import io.hypersistence.tsid.TSID;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,12 +24,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 @SpringBootTest
 @ActiveProfiles("test")
 @AutoConfigureMockMvc
@@ -37,6 +55,18 @@ class SensorControllerTest1 {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SensorBulkJobRepository sensorBulkJobRepository;
+
+    @Autowired
+    private SensorBulkJobRunner sensorBulkJobRunner;
+
+    @Autowired
+    private SensorNameNormalizationBackfill sensorNameNormalizationBackfill;
+
     private Sensor sensor;
 
     @BeforeEach
@@ -73,6 +103,174 @@ class SensorControllerTest1 {
         Assertions.assertThat(sensorRepository.findAll()).anyMatch(s -> s.getName().equals("Sensor Novo"));
     }
 
+    @Test
+    void deveCriarSensoresEmLote() throws Exception {
+        log.info("Realizando teste de criação de sensores em lote");
+        List<SensorInput> novosSensores = List.of(
+                SensorInput.builder().name("Sensor Lote 1").ip("10.2.3.2").protocol("HTTP").location("Sala C").model("X-200").build(),
+                SensorInput.builder().name("Sensor Lote 2").ip("10.2.3.3").protocol("MQTT").location("Sala C").model("X-200").build()
+        );
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sensors/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(novosSensores)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(0));
+
+        Assertions.assertThat(sensorRepository.findAll())
+                .filteredOn(s -> s.getName().startsWith("Sensor Lote"))
+                .hasSize(2);
+    }
+
+    @Test
+    void deveCriarSensoresEmLoteViaNdjson() throws Exception {
+        log.info("Realizando teste de criação de sensores em lote via NDJSON");
+        String ndjson = objectMapper.writeValueAsString(SensorInput.builder().name("Sensor Stream 1").ip("10.2.3.4").build())
+                + "\n"
+                + objectMapper.writeValueAsString(SensorInput.builder().name("Sensor Stream 2").ip("10.2.3.5").build())
+                + "\n";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sensors/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[1].index").value(1));
+    }
+
+    @Test
+    void devePaginarPorCursor() throws Exception {
+        log.info("Realizando teste de paginação por cursor");
+        Sensor segundo = sensor.toBuilder().id(new SensorId(sensor.getId().getValue().toLong() + 1)).name("Sensor 2").version(null).build();
+        sensorRepository.save(segundo);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors")
+                        .param("after", "")
+                        .param("size", "1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(sensor.getId().toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value(sensor.getId().toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(2));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors")
+                        .param("after", sensor.getId().toString())
+                        .param("size", "1")
+                        .param("count", "false"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(segundo.getId().toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void devePaginarPorCursorAplicandoFiltro() throws Exception {
+        log.info("Realizando teste de paginação por cursor com filtro");
+        long base = sensor.getId().getValue().toLong();
+        Sensor outraSala = sensor.toBuilder().id(new SensorId(base + 1)).name("Sensor 2").location("Sala B").version(null).build();
+        Sensor mesmaSala = sensor.toBuilder().id(new SensorId(base + 2)).name("Sensor 3").version(null).build();
+        sensorRepository.save(outraSala);
+        sensorRepository.save(mesmaSala);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors")
+                        .param("after", sensor.getId().toString())
+                        .param("location", "Sala A")
+                        .param("size", "1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(mesmaSala.getId().toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void deveFiltrarSensoresPorAtributos() throws Exception {
+        log.info("Realizando teste de filtro por atributos");
+        sensorRepository.save(Sensor.builder().id(new SensorId(TSID.fast())).name("Termômetro Norte")
+                .ip("10.1.2.3").protocol("MQTT").location("Sala B").enabled(true).build());
+        sensorRepository.save(Sensor.builder().id(new SensorId(TSID.fast())).name("Termômetro Sul")
+                .ip("172.16.0.9").protocol("MQTT").location("Sala B").enabled(true).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors")
+                        .param("name", "TERMÔ")
+                        .param("ipPrefix", "10.1.")
+                        .param("enabled", "true"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("Termômetro Norte"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors")
+                        .param("location", "Sala B")
+                        .param("protocol", "MQTT"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void deveFiltrarPorNomeSensoresGravadosSemNomeNormalizado() throws Exception {
+        log.info("Realizando teste de filtro por nome em sensores anteriores a name_normalized");
+        TSID id = TSID.fast();
+        jdbcTemplate.update("insert into sensor (id, name, enabled, version) values (?, ?, ?, 0)",
+                id.toLong(), "Sensor Legado", false);
+
+        sensorNameNormalizationBackfill.backfill();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors").param("name", "sensor leg"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(id.toString()));
+    }
+
+    @Test
+    void deveExportarSensoresEmNdjson() throws Exception {
+        log.info("Realizando teste de exportação em NDJSON");
+        MvcResult resultado = mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+
+        String[] linhas = resultado.getResponse().getContentAsString().split("\n");
+        Assertions.assertThat(linhas).hasSize(1);
+        Assertions.assertThat(objectMapper.readTree(linhas[0]).get("id").asText()).isEqualTo(sensor.getId().toString());
+    }
+
+    @Test
+    void deveExportarSensoresEmCsv() throws Exception {
+        log.info("Realizando teste de exportação em CSV");
+        sensorRepository.save(Sensor.builder().id(new SensorId(TSID.fast())).name("Sensor, com vírgula").build());
+        MvcResult resultado = mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/export").param("format", "csv"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        String csv = resultado.getResponse().getContentAsString();
+        Assertions.assertThat(csv).startsWith("id,name,ip,location,protocol,model,enabled\n");
+        Assertions.assertThat(csv).contains(sensor.getId() + ",Sensor 1,192.168.1.100,Sala A,MQTT,S-100,false\n");
+        Assertions.assertThat(csv).contains("\"Sensor, com vírgula\"");
+    }
+
+    @Test
+    void deveRetornar404AoDetalharSensorInexistente() throws Exception {
+        log.info("Realizando teste de detalhe de sensor inexistente");
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/{sensorId}/detail", TSID.fast()))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    void deveDetalharSomenteSensoresExistentesEmLote() throws Exception {
+        log.info("Realizando teste de detalhe de sensores em lote");
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/detail")
+                        .param("ids", sensor.getId().toString() + "," + TSID.fast()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].sensor.id").value(sensor.getId().toString()));
+    }
+
     @Test
     void deveAtualizarSensorExistente() throws Exception {
         log.info("Realizando teste de edição de sensor existente");
@@ -93,6 +291,68 @@ class SensorControllerTest1 {
         Assertions.assertThat(atualizado.getLocation()).isEqualTo("Avenida da Américas, 600");
     }
 
+    @Test
+    void deveManterAtivacaoAoAtualizarSensor() throws Exception {
+        log.info("Realizando teste de edição de sensor ativo");
+        sensor.enable();
+        sensorRepository.save(sensor);
+        SensorInput input = SensorInput.builder().name("Sensor 1 Editado").build();
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/sensors/{sensorId}", sensor.getId().getValue())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(input)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.enabled").value(true));
+    }
+
+    @Test
+    void deveAtualizarParcialmenteSensor() throws Exception {
+        log.info("Realizando teste de edição parcial de sensor");
+        SensorInput input = SensorInput.builder().location("Sala Z").build();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/sensors/{sensorId}", sensor.getId().getValue())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(input)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"1\""));
+
+        var atualizado = sensorRepository.findById(sensor.getId()).orElseThrow();
+        Assertions.assertThat(atualizado.getLocation()).isEqualTo("Sala Z");
+        Assertions.assertThat(atualizado.getName()).isEqualTo(sensor.getName());
+        Assertions.assertThat(atualizado.getIp()).isEqualTo(sensor.getIp());
+    }
+
+    @Test
+    void deveRetornar412AoAtualizarParcialmenteComVersaoDesatualizada() throws Exception {
+        log.info("Realizando teste de edição parcial com If-Match desatualizado");
+        SensorInput input = SensorInput.builder().location("Sala Z").build();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/sensors/{sensorId}", sensor.getId().getValue())
+                        .header("If-Match", "\"42\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(input)))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        var atual = sensorRepository.findById(sensor.getId()).orElseThrow();
+        Assertions.assertThat(atual.getLocation()).isEqualTo("Sala A");
+    }
+
+    @Test
+    void deveRetornar412AoAtualizarComETagFraco() throws Exception {
+        log.info("Realizando teste de edição parcial com If-Match fraco");
+        SensorInput input = SensorInput.builder().location("Sala Z").build();
+
+        // a versão confere, mas If-Match exige comparação forte
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/sensors/{sensorId}", sensor.getId().getValue())
+                        .header("If-Match", "W/\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(input)))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        var atual = sensorRepository.findById(sensor.getId()).orElseThrow();
+        Assertions.assertThat(atual.getLocation()).isEqualTo("Sala A");
+    }
+
     @Test
     void deveRetornar404AoAtualizarSensorInexistente() throws Exception {
         log.info("Realizando teste de edição de sensor inexistente");
@@ -139,6 +399,60 @@ class SensorControllerTest1 {
         Assertions.assertThat(sensorAtualizado.getEnabled()).isFalse();
     }
 
+    @Test
+    void deveAtivarSensoresPorFiltro() throws Exception {
+        log.info("Realizando teste de ativação em massa por localização");
+        sensorRepository.save(Sensor.builder().id(new SensorId(TSID.fast())).name("Sensor 2").location("Sala A").enabled(false).build());
+        sensorRepository.save(Sensor.builder().id(new SensorId(TSID.fast())).name("Sensor 3").location("Sala B").enabled(false).build());
+        SensorBulkFilterInput filtro = SensorBulkFilterInput.builder().location("Sala A").build();
+
+        String resposta = mockMvc.perform(MockMvcRequestBuilders.post("/api/sensors/enable")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(filtro)))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(2))
+                .andReturn().getResponse().getContentAsString();
+
+        String jobId = objectMapper.readTree(resposta).get("id").asText();
+        aguardarFimDoJob(TSID.from(jobId));
+        Assertions.assertThat(sensorRepository.findAll())
+                .allMatch(s -> s.getEnabled() == "Sala A".equals(s.getLocation()));
+
+        JsonNode job = objectMapper.readTree(mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/jobs/{jobId}", jobId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        Assertions.assertThat(job.get("total").asInt()).isEqualTo(2);
+        Assertions.assertThat(job.get("status").asText()).isNotEqualTo("FAILED");
+        Assertions.assertThat(job.get("processed").asLong() + job.get("remaining").asLong() + job.get("failed").asLong())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void deveMarcarComoFalhoJobSemHeartbeat() throws Exception {
+        log.info("Realizando teste de job em massa abandonado por outra instância");
+        SensorBulkJob job = SensorBulkJob.of(SensorMonitoringOutboxEntry.Operation.ENABLE, 10);
+        job.setApplied(4);
+        job.setHeartbeatAt(OffsetDateTime.now().minusHours(1));
+        sensorBulkJobRepository.save(job);
+
+        sensorBulkJobRunner.failStaleJobs();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/jobs/{jobId}", TSID.from(job.getId())))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("FAILED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.completed").value(false))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").isNotEmpty())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.remaining").value(6));
+    }
+
+    @Test
+    void deveRetornar400AoAtivarEmMassaSemFiltro() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sensors/enable")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     void deveRetornar404AoAtivarSensorInexistente() throws Exception {
         log.info("Realizando teste de ativação de sensor inexistente");
@@ -153,6 +467,167 @@ class SensorControllerTest1 {
                 .andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    void deveRetornar304QuandoSensorNaoMudou() throws Exception {
+        log.info("Realizando teste de GET condicional com If-None-Match");
+        String eTagSensor = mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/{sensorId}", sensor.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String eTagPagina = mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/{sensorId}", sensor.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTagSensor))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTagPagina))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/sensors/{sensorId}/enable", sensor.getId()))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/{sensorId}", sensor.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTagSensor))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.enabled").value(true));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTagPagina))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    void deveNegociarCborESmileComTSIDComoLong() throws Exception {
+        log.info("Realizando teste de negociação de conteúdo em CBOR e Smile");
+        MediaType cbor = MediaType.parseMediaType("application/cbor");
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
 
+        byte[] corpo = mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/{sensorId}", sensor.getId())
+                        .accept(cbor))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(cbor))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode sensorCbor = new CBORMapper().readTree(corpo);
+        Assertions.assertThat(sensorCbor.get("id").isLong()).isTrue();
+        Assertions.assertThat(sensorCbor.get("id").asLong()).isEqualTo(sensor.getId().getValue().toLong());
+        Assertions.assertThat(sensorCbor.get("name").asText()).isEqualTo("Sensor 1");
+
+        SensorInput novoSensor = SensorInput.builder()
+                .name("Sensor Smile")
+                .ip("10.2.3.4")
+                .protocol("HTTP")
+                .location("Sala B")
+                .model("X-200")
+                .build();
+        byte[] resposta = mockMvc.perform(MockMvcRequestBuilders.post("/api/sensors")
+                        .contentType(smile)
+                        .accept(smile)
+                        .content(new SmileMapper().writeValueAsBytes(novoSensor)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+        long id = new SmileMapper().readTree(resposta).get("id").asLong();
+        Assertions.assertThat(sensorRepository.findById(new SensorId(id))).isPresent();
+    }
+
+    @Test
+    void deveEnviarAlteracoesFiltradasNoStream() throws Exception {
+        log.info("Realizando teste do stream de alterações com filtro");
+        MvcResult stream = mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/stream")
+                        .param("location", "Sala Z")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        String outroSensor = criarSensor("Sala Y");
+        String sensorFiltrado = criarSensor("Sala Z");
+
+        String eventos = aguardarEvento(stream, sensorFiltrado);
+        Assertions.assertThat(eventos).contains("event:sensor").contains("\"type\":\"CREATED\"");
+        Assertions.assertThat(eventos).doesNotContain(outroSensor);
+    }
+
+    @Test
+    void deveRetomarStreamPeloLastEventId() throws Exception {
+        log.info("Realizando teste de retomada do stream pelo Last-Event-ID");
+        MvcResult primeiraConexao = mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        String primeiro = criarSensor("Sala A");
+        Matcher matcher = Pattern.compile("id:(\\d+)\nevent:sensor\ndata:[^\n]*" + primeiro)
+                .matcher(aguardarEvento(primeiraConexao, primeiro));
+        Assertions.assertThat(matcher.find()).isTrue();
+
+        // perdido pelo cliente enquanto estava desconectado
+        String segundo = criarSensor("Sala A");
+
+        MvcResult reconexao = mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/stream")
+                        .header("Last-Event-ID", matcher.group(1))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        Assertions.assertThat(aguardarEvento(reconexao, segundo)).doesNotContain(primeiro);
+    }
+
+    @Test
+    void deveBuscarSensorPorIpELocalNoRegistro() throws Exception {
+        log.info("Realizando teste de busca por IP e local no registro em memória");
+        String id = criarSensor("Sala Registro");
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/sensors/{sensorId}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ip\":\"172.31.200.7\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/by-ip/{ip}", "172.31.200.7"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(id));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/by-location/{location}", "Sala Registro"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].ip").value("172.31.200.7"));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/sensors/{sensorId}", id))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/by-ip/{ip}", "172.31.200.7"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(0));
+    }
+
+    private String criarSensor(String location) throws Exception {
+        SensorInput input = SensorInput.builder()
+                .name("Sensor " + location)
+                .ip("10.0.0.1")
+                .protocol("MQTT")
+                .location(location)
+                .model("S-100")
+                .build();
+        String resposta = mockMvc.perform(MockMvcRequestBuilders.post("/api/sensors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(input)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(resposta).get("id").asText();
+    }
+
+    // os eventos são enviados numa virtual thread, então o conteúdo chega depois da requisição
+    private String aguardarEvento(MvcResult stream, String texto) throws Exception {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String conteudo = stream.getResponse().getContentAsString();
+        while (!conteudo.contains(texto) && System.nanoTime() < limite) {
+            Thread.sleep(20);
+            conteudo = stream.getResponse().getContentAsString();
+        }
+        Assertions.assertThat(conteudo).contains(texto);
+        return conteudo;
+    }
+
+    // o job roda em segundo plano, fora da requisição
+    private void aguardarFimDoJob(TSID jobId) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (sensorBulkJobRepository.findById(jobId.toLong()).orElseThrow().getFinishedAt() == null
+                && System.nanoTime() < limite) {
+            Thread.sleep(20);
+        }
+        Assertions.assertThat(sensorBulkJobRepository.findById(jobId.toLong()).orElseThrow().getFinishedAt()).isNotNull();
+    }
 
 }
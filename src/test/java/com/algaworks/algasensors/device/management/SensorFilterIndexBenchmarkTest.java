@@ -0,0 +1,116 @@
+package com.algaworks.algasensors.device.management;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Executar com ./gradlew benchmark
+ *
+ * Mede as consultas de filtro com os índices declarados em Sensor e depois sem eles (full scan),
+ * registrando o plano do EXPLAIN do H2 em cada caso.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:filter-benchmark;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class SensorFilterIndexBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorFilterIndexBenchmarkTest.class);
+
+    private static final int SENSORS = 1_000_000;
+    private static final int ROUNDS = 20;
+
+    // consulta -> índice que deve aparecer no plano
+    private static final Map<String, String> CONSULTAS = new LinkedHashMap<>();
+
+    static {
+        CONSULTAS.put("select id from sensor where location = 'Sala 417'", "IDX_SENSOR_LOCATION");
+        CONSULTAS.put("select id from sensor where model = 'M-7' and protocol = 'LORA'", "IDX_SENSOR_");
+        CONSULTAS.put("select id from sensor where ip like '10.3.7.%'", "IDX_SENSOR_IP");
+        CONSULTAS.put("select id from sensor where name_normalized like 'sensor 99999%'", "IDX_SENSOR_NAME_NORMALIZED");
+    }
+
+    private static final String[] INDICES = {
+            "idx_sensor_location", "idx_sensor_protocol", "idx_sensor_model",
+            "idx_sensor_enabled", "idx_sensor_ip", "idx_sensor_name_normalized"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("delete from sensor");
+        jdbcTemplate.execute("""
+                insert into sensor (id, name, name_normalized, ip, location, protocol, model, enabled, version)
+                select x,
+                       'Sensor ' || x,
+                       'sensor ' || x,
+                       '10.' || mod(x / 65536, 256) || '.' || mod(x / 256, 256) || '.' || mod(x, 256),
+                       'Sala ' || mod(x, 1000),
+                       case mod(x, 3) when 0 then 'MQTT' when 1 then 'HTTP' else 'LORA' end,
+                       'M-' || mod(x, 50),
+                       mod(x, 2) = 0,
+                       0
+                from system_range(1, %d)
+                """.formatted(SENSORS));
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void compararConsultasComIndiceESemIndice() {
+        log.info("{} sensores", SENSORS);
+        Map<String, Double> comIndice = new LinkedHashMap<>();
+        CONSULTAS.forEach((sql, indice) -> {
+            String plano = explain(sql);
+            log.info("plano com índice: {}", plano);
+            Assertions.assertThat(plano.toUpperCase()).contains(indice);
+            comIndice.put(sql, medir(sql));
+        });
+
+        for (String indice : INDICES) {
+            jdbcTemplate.execute("drop index " + indice);
+        }
+        try {
+            CONSULTAS.forEach((sql, indice) -> {
+                log.info("plano sem índice: {}", explain(sql));
+                log.info("{}: com índice = {} ms, full scan = {} ms", sql,
+                        String.format("%.2f", comIndice.get(sql)), String.format("%.2f", medir(sql)));
+            });
+        } finally {
+            jdbcTemplate.execute("create index idx_sensor_location on sensor (location)");
+            jdbcTemplate.execute("create index idx_sensor_protocol on sensor (protocol)");
+            jdbcTemplate.execute("create index idx_sensor_model on sensor (model)");
+            jdbcTemplate.execute("create index idx_sensor_enabled on sensor (enabled)");
+            jdbcTemplate.execute("create index idx_sensor_ip on sensor (ip)");
+            jdbcTemplate.execute("create index idx_sensor_name_normalized on sensor (name_normalized)");
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class).replaceAll("\\s+", " ");
+    }
+
+    private double medir(String sql) {
+        jdbcTemplate.queryForList(sql, Long.class); // aquecimento
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            jdbcTemplate.queryForList(sql, Long.class);
+        }
+        return (System.nanoTime() - inicio) / 1_000_000.0 / ROUNDS;
+    }
+
+}
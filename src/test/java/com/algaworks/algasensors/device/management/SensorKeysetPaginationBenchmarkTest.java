@@ -0,0 +1,91 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.common.IdGenerator;
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import io.hypersistence.tsid.TSID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/*
+ * Executar com ./gradlew benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class SensorKeysetPaginationBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorKeysetPaginationBenchmarkTest.class);
+
+    private static final int SENSORS = 200_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    private List<TSID> ids;
+
+    @BeforeEach
+    void setUp() {
+        sensorRepository.deleteAllInBatch();
+        ids = IdGenerator.generateTSIDs(SENSORS);
+        List<Sensor> chunk = new ArrayList<>();
+        for (TSID id : ids) {
+            chunk.add(Sensor.builder()
+                    .id(new SensorId(id))
+                    .name("Sensor " + id)
+                    .ip("10.0.0.1")
+                    .protocol("MQTT")
+                    .location("Planta")
+                    .model("S-100")
+                    .enabled(false)
+                    .build());
+            if (chunk.size() == 1000) {
+                sensorRepository.persistAll(chunk);
+                chunk.clear();
+            }
+        }
+        sensorRepository.persistAll(chunk);
+    }
+
+    @Test
+    void compararOffsetComCursorEmPaginasProfundas() {
+        log.info("{} sensores, páginas de {}", SENSORS, PAGE_SIZE);
+        for (double profundidade : new double[]{0.0, 0.25, 0.5, 0.75, 0.99}) {
+            int pagina = (int) (SENSORS * profundidade) / PAGE_SIZE;
+            TSID cursor = pagina == 0 ? TSID.from(0L) : ids.get(pagina * PAGE_SIZE - 1);
+
+            double offsetMs = medir(() -> sensorRepository.findAll(
+                    PageRequest.of(pagina, PAGE_SIZE, Sort.by("id.value"))).getContent());
+            double cursorMs = medir(() -> sensorRepository.findSummariesAfter(
+                    cursor, PageRequest.ofSize(PAGE_SIZE + 1)));
+
+            log.info("página {} ({}%): offset + count = {} ms, cursor = {} ms",
+                    pagina, (int) (profundidade * 100), String.format("%.2f", offsetMs), String.format("%.2f", cursorMs));
+        }
+    }
+
+    private double medir(Supplier<? extends List<?>> consulta) {
+        consulta.get(); // aquecimento
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            consulta.get();
+        }
+        return (System.nanoTime() - inicio) / 1_000_000.0 / ROUNDS;
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringFanOut;
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringOutboxDispatcher;
+import com.algaworks.algasensors.device.management.api.model.SensorMonitoringOutput;
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.repository.SensorMonitoringOutboxRepository;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import io.hypersistence.tsid.TSID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+@SpringBootTest(properties = {
+        "algasensors.monitoring.batch.enabled=true",
+        "algasensors.monitoring.batch.max-delay=20ms",
+        "algasensors.monitoring.batch.max-size=100",
+        "algasensors.monitoring.outbox.poll-interval=1h"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SensorMonitoringBatchTest {
+
+    private static final SensorMonitoringStubServer stub = startStub();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SensorMonitoringFanOut fanOut;
+
+    @Autowired
+    private SensorMonitoringOutboxDispatcher dispatcher;
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    @Autowired
+    private SensorMonitoringOutboxRepository outboxRepository;
+
+    @DynamicPropertySource
+    static void monitoringProperties(DynamicPropertyRegistry registry) {
+        registry.add("algasensors.monitoring.base-url", stub::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        stub.reset();
+    }
+
+    @Test
+    void deveAgruparConsultasSimultaneasEmUmLote() {
+        List<TSID> sensorIds = IntStream.range(0, 10).mapToObj(i -> TSID.fast()).toList();
+
+        List<CompletableFuture<SensorMonitoringOutput>> consultas = sensorIds.stream()
+                .map(fanOut::getDetail)
+                .toList();
+
+        for (int i = 0; i < sensorIds.size(); i++) {
+            Assertions.assertThat(SensorMonitoringFanOut.join(consultas.get(i)).getId()).isEqualTo(sensorIds.get(i));
+        }
+        Assertions.assertThat(stub.getRequestLog()).containsExactly("POST /api/sensors/monitoring/batch-detail");
+    }
+
+    @Test
+    void deveDividirLotesMaioresQueMaxSize() {
+        List<TSID> sensorIds = IntStream.range(0, 250).mapToObj(i -> TSID.fast()).toList();
+
+        Map<TSID, SensorMonitoringOutput> detalhes = fanOut.getDetails(sensorIds);
+
+        Assertions.assertThat(detalhes).hasSize(250);
+        Assertions.assertThat(stub.getRequests()).isEqualTo(3);
+    }
+
+    @Test
+    void deveEnviarOutboxEmLote() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Sensor sensor = sensorRepository.save(Sensor.builder()
+                    .id(new SensorId(TSID.fast()))
+                    .name("Sensor Lote " + i)
+                    .enabled(false)
+                    .build());
+            mockMvc.perform(MockMvcRequestBuilders.put("/api/sensors/{sensorId}/enable", sensor.getId().getValue()))
+                    .andExpect(MockMvcResultMatchers.status().isNoContent());
+        }
+
+        dispatcher.dispatch();
+
+        Assertions.assertThat(stub.getRequestLog()).containsExactly("POST /api/sensors/monitoring/batch-enable");
+        Assertions.assertThat(outboxRepository.count()).isZero();
+    }
+
+    private static SensorMonitoringStubServer startStub() {
+        try {
+            return SensorMonitoringStubServer.start(Duration.ZERO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.client.RestClientConfig;
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.hypersistence.tsid.TSID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SensorMonitoringCircuitBreakerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private Sensor sensor;
+
+    @BeforeEach
+    void setUp() {
+        sensor = sensorRepository.save(Sensor.builder()
+                .id(new SensorId(TSID.fast()))
+                .name("Sensor Circuito")
+                .enabled(false)
+                .build());
+        circuitBreakerRegistry.circuitBreaker(RestClientConfig.SENSOR_MONITORING).transitionToForcedOpenState();
+    }
+
+    @AfterEach
+    void tearDown() {
+        circuitBreakerRegistry.circuitBreaker(RestClientConfig.SENSOR_MONITORING).reset();
+    }
+
+    @Test
+    void deveFalharRapidoComCircuitoAberto() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/{sensorId}/detail", sensor.getId().getValue()))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.type").value("/erros/service-unavailable"));
+    }
+
+}
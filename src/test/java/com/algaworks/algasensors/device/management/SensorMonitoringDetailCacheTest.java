@@ -0,0 +1,100 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringDetailCache;
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringDetailCache.CachedSensorMonitoring;
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringFanOut;
+import io.hypersistence.tsid.TSID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+@SpringBootTest(properties = {
+        "algasensors.monitoring.detail-cache.refresh-after-write=300ms",
+        "algasensors.monitoring.detail-cache.expire-after-write=1m",
+        "algasensors.monitoring.outbox.poll-interval=1h"
+})
+@ActiveProfiles("test")
+class SensorMonitoringDetailCacheTest {
+
+    private static final SensorMonitoringStubServer stub = startStub();
+
+    @Autowired
+    private SensorMonitoringDetailCache detailCache;
+
+    @DynamicPropertySource
+    static void monitoringProperties(DynamicPropertyRegistry registry) {
+        registry.add("algasensors.monitoring.base-url", stub::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stub.reset();
+        stub.setLatency(Duration.ofMillis(100));
+    }
+
+    @Test
+    void deveCompartilharChamadaEntreConsultasSimultaneas() {
+        TSID sensorId = TSID.fast();
+
+        List<CompletableFuture<CachedSensorMonitoring>> consultas = IntStream.range(0, 10)
+                .mapToObj(i -> detailCache.getDetail(sensorId))
+                .toList();
+        consultas.forEach(SensorMonitoringFanOut::join);
+
+        Assertions.assertThat(stub.getRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void deveServirValorAntigoEnquantoRevalida() throws Exception {
+        TSID sensorId = TSID.fast();
+        CachedSensorMonitoring primeiro = SensorMonitoringFanOut.join(detailCache.getDetail(sensorId));
+        Thread.sleep(400);
+
+        CachedSensorMonitoring antigo = SensorMonitoringFanOut.join(detailCache.getDetail(sensorId));
+
+        Assertions.assertThat(antigo.fetchedAt()).isEqualTo(primeiro.fetchedAt());
+        Assertions.assertThat(detailCache.isStale(antigo)).isTrue();
+        Thread.sleep(300);
+        Assertions.assertThat(stub.getRequests()).isEqualTo(2);
+        Assertions.assertThat(SensorMonitoringFanOut.join(detailCache.getDetail(sensorId)).fetchedAt())
+                .isAfter(primeiro.fetchedAt());
+    }
+
+    @Test
+    void deveConsultarNovamenteAposInvalidar() {
+        TSID sensorId = TSID.fast();
+        SensorMonitoringFanOut.join(detailCache.getDetail(sensorId));
+
+        detailCache.invalidate(sensorId);
+        SensorMonitoringFanOut.join(detailCache.getDetail(sensorId));
+
+        Assertions.assertThat(stub.getRequests()).isEqualTo(2);
+    }
+
+    private static SensorMonitoringStubServer startStub() {
+        try {
+            return SensorMonitoringStubServer.start(Duration.ZERO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
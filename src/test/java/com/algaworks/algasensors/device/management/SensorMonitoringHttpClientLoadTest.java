@@ -0,0 +1,105 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.client.RestClientFactory;
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringProperties;
+import io.hypersistence.tsid.TSID;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Executar com ./gradlew benchmark
+ */
+@Tag("benchmark")
+class SensorMonitoringHttpClientLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorMonitoringHttpClientLoadTest.class);
+
+    private static final int CONCURRENCY = 64;
+    private static final int REQUESTS = 20_000;
+
+    private static SensorMonitoringStubServer stub;
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        stub = SensorMonitoringStubServer.start(Duration.ofMillis(5));
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void compararLatenciaSemPoolComPool() throws Exception {
+        SimpleClientHttpRequestFactory simple = new SimpleClientHttpRequestFactory();
+        simple.setConnectTimeout(Duration.ofSeconds(3));
+        simple.setReadTimeout(Duration.ofSeconds(5));
+
+        SensorMonitoringProperties properties = new SensorMonitoringProperties();
+        properties.setBaseUrl(stub.getBaseUrl());
+        properties.getPool().setMaxConnectionsPerRoute(CONCURRENCY);
+        ClientHttpRequestFactory pooled = RestClientFactory.generateClientHttpRequestFactory(properties);
+
+        try {
+            run("SimpleClientHttpRequestFactory", simple);
+            run("pool Apache HttpClient", pooled);
+        } finally {
+            ((DisposableBean) pooled).destroy();
+        }
+    }
+
+    private void run(String name, ClientHttpRequestFactory requestFactory) throws Exception {
+        RestClient restClient = RestClient.builder()
+                .baseUrl(stub.getBaseUrl())
+                .requestFactory(requestFactory)
+                .build();
+        long[] latencies = new long[REQUESTS];
+
+        long inicio = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY)) {
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                int request = i;
+                futures.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    restClient.get()
+                            .uri("/api/sensors/{sensorId}/monitoring", TSID.fast())
+                            .retrieve()
+                            .toBodilessEntity();
+                    latencies[request] = System.nanoTime() - start;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long totalMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        Arrays.sort(latencies);
+        log.info("{}: {} req em {} ms ({} req/s), p50 = {} ms, p99 = {} ms",
+                name, REQUESTS, totalMs, REQUESTS * 1000L / Math.max(1, totalMs),
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static String percentile(long[] sortedNanos, double percentile) {
+        long nanos = sortedNanos[(int) Math.ceil(percentile * sortedNanos.length) - 1];
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.client.RestClientConfig;
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringOutboxDispatcher;
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.model.SensorMonitoringOutboxEntry;
+import com.algaworks.algasensors.device.management.domain.repository.SensorMonitoringOutboxRepository;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.hypersistence.tsid.TSID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+@SpringBootTest(properties = {
+        "algasensors.monitoring.outbox.poll-interval=1h",
+        "algasensors.monitoring.outbox.initial-backoff=0s",
+        "algasensors.monitoring.outbox.max-attempts=2"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SensorMonitoringOutboxDispatcherTest {
+
+    private static final SensorMonitoringStubServer stub = startStub();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    @Autowired
+    private SensorMonitoringOutboxRepository outboxRepository;
+
+    @Autowired
+    private SensorMonitoringOutboxDispatcher dispatcher;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private Sensor sensor;
+
+    @DynamicPropertySource
+    static void monitoringProperties(DynamicPropertyRegistry registry) {
+        registry.add("algasensors.monitoring.base-url", stub::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        stub.reset();
+        circuitBreakerRegistry.circuitBreaker(RestClientConfig.SENSOR_MONITORING).reset();
+        sensor = sensorRepository.save(Sensor.builder()
+                .id(new SensorId(TSID.fast()))
+                .name("Sensor Outbox")
+                .enabled(false)
+                .build());
+    }
+
+    @Test
+    void deveGravarNaOutboxSemChamarMonitoramento() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/sensors/{sensorId}/enable", sensor.getId().getValue()))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        Assertions.assertThat(outboxRepository.findAll())
+                .singleElement()
+                .extracting(SensorMonitoringOutboxEntry::getOperation)
+                .isEqualTo(SensorMonitoringOutboxEntry.Operation.ENABLE);
+        Assertions.assertThat(stub.getRequests()).isZero();
+    }
+
+    @Test
+    void deveEnviarSomenteOEstadoFinalDeAlternanciasSeguidas() throws Exception {
+        TSID sensorId = sensor.getId().getValue();
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/sensors/{sensorId}/enable", sensorId));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/sensors/{sensorId}/enable", sensorId));
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/sensors/{sensorId}/enable", sensorId));
+
+        dispatcher.dispatch();
+
+        Assertions.assertThat(stub.getRequestLog())
+                .containsExactly("PUT /api/sensors/" + sensorId + "/monitoring/enable");
+        Assertions.assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void deveIgnorarEntradasReservadasPorOutraInstancia() throws Exception {
+        TSID sensorId = sensor.getId().getValue();
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/sensors/{sensorId}/enable", sensorId));
+        SensorMonitoringOutboxEntry reservada = outboxRepository.findAll().get(0);
+        reservada.claim(OffsetDateTime.now().plusMinutes(1));
+        outboxRepository.save(reservada);
+        // a operação seguinte do mesmo sensor espera a reservada terminar
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/sensors/{sensorId}/enable", sensorId));
+
+        dispatcher.dispatch();
+
+        Assertions.assertThat(stub.getRequests()).isZero();
+        Assertions.assertThat(outboxRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void deveMarcarComoFalhaAposEsgotarTentativas() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/sensors/{sensorId}/enable", sensor.getId().getValue()))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        stub.failWith(500);
+
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        // duas tentativas e a entrada sai da fila, mas continua registrada como falha
+        Assertions.assertThat(stub.getRequests()).isEqualTo(2);
+        Assertions.assertThat(outboxRepository.findAll())
+                .singleElement()
+                .satisfies(entry -> {
+                    Assertions.assertThat(entry.getAttempts()).isEqualTo(2);
+                    Assertions.assertThat(entry.getFailedAt()).isNotNull();
+                });
+    }
+
+    @Test
+    void naoDeveContarRespostas4xxComoFalhaDoCircuito() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/sensors/{sensorId}/enable", sensor.getId().getValue()))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        stub.failWith(400);
+
+        dispatcher.dispatch();
+
+        CircuitBreaker.Metrics metrics = circuitBreakerRegistry.circuitBreaker(RestClientConfig.SENSOR_MONITORING)
+                .getMetrics();
+        Assertions.assertThat(stub.getRequests()).isEqualTo(1);
+        Assertions.assertThat(metrics.getNumberOfFailedCalls()).isZero();
+    }
+
+    private static SensorMonitoringStubServer startStub() {
+        try {
+            return SensorMonitoringStubServer.start(Duration.ZERO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
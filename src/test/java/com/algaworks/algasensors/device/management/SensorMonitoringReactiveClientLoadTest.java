@@ -0,0 +1,142 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.client.RestClientFactory;
+import com.algaworks.algasensors.device.management.api.client.SensorMonitoringProperties;
+import com.algaworks.algasensors.device.management.api.client.WebClientFactory;
+import io.hypersistence.tsid.TSID;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Executar com ./gradlew benchmark
+ *
+ * Com 200ms por chamada o cliente bloqueante faz no máximo THREADS / 0,2s req/s;
+ * o reativo mantém IN_FLIGHT chamadas abertas usando só as threads de I/O do Netty
+ */
+@Tag("benchmark")
+class SensorMonitoringReactiveClientLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorMonitoringReactiveClientLoadTest.class);
+
+    private static final int THREADS = 64;
+    private static final int IN_FLIGHT = 1_000;
+    private static final int REQUESTS = 10_000;
+
+    private static SensorMonitoringStubServer stub;
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        stub = SensorMonitoringStubServer.start(Duration.ofMillis(200));
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void compararClienteBloqueanteComReativo() throws Exception {
+        SensorMonitoringProperties properties = new SensorMonitoringProperties();
+        properties.setBaseUrl(stub.getBaseUrl());
+        properties.getPool().setMaxConnections(IN_FLIGHT);
+        properties.getPool().setMaxConnectionsPerRoute(IN_FLIGHT);
+        properties.getPool().setConnectionRequestTimeout(Duration.ofSeconds(30));
+
+        ClientHttpRequestFactory pooled = RestClientFactory.generateClientHttpRequestFactory(properties);
+        WebClientFactory webClientFactory = new WebClientFactory(WebClient.builder(), properties);
+        try {
+            runBlocking(RestClient.builder().baseUrl(stub.getBaseUrl()).requestFactory(pooled).build());
+            runReactive(webClientFactory.sensorMonitoringWebClient());
+        } finally {
+            ((DisposableBean) pooled).destroy();
+            webClientFactory.destroy();
+        }
+    }
+
+    private void runBlocking(RestClient restClient) throws Exception {
+        long[] latencies = new long[REQUESTS];
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        long inicio = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                int request = i;
+                futures.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    threads.add(Thread.currentThread().getName());
+                    restClient.get()
+                            .uri("/api/sensors/{sensorId}/monitoring", TSID.fast())
+                            .retrieve()
+                            .toBodilessEntity();
+                    latencies[request] = System.nanoTime() - start;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        report("RestClient bloqueante (" + THREADS + " threads)", latencies, System.nanoTime() - inicio, threads.size());
+    }
+
+    private void runReactive(WebClient webClient) {
+        long[] latencies = new long[REQUESTS];
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        AtomicInteger requests = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        Flux.range(0, REQUESTS)
+                .flatMap(request -> Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return webClient.get()
+                            .uri("/api/sensors/{sensorId}/monitoring", TSID.fast())
+                            .retrieve()
+                            .toBodilessEntity()
+                            .doOnNext(response -> {
+                                threads.add(Thread.currentThread().getName());
+                                latencies[request] = System.nanoTime() - start;
+                                requests.incrementAndGet();
+                            });
+                }), IN_FLIGHT)
+                .blockLast();
+        report("WebClient reativo (" + IN_FLIGHT + " em voo)", latencies, System.nanoTime() - inicio, threads.size());
+        if (requests.get() != REQUESTS) {
+            throw new IllegalStateException("Respostas recebidas: " + requests.get());
+        }
+    }
+
+    private void report(String name, long[] latencies, long totalNanos, int threads) {
+        long totalMs = totalNanos / 1_000_000;
+        Arrays.sort(latencies);
+        log.info("{}: {} req em {} ms ({} req/s), p50 = {} ms, p99 = {} ms, threads usadas = {}",
+                name, REQUESTS, totalMs, REQUESTS * 1000L / Math.max(1, totalMs),
+                percentile(latencies, 0.50), percentile(latencies, 0.99), threads);
+    }
+
+    private static String percentile(long[] sortedNanos, double percentile) {
+        long nanos = sortedNanos[(int) Math.ceil(percentile * sortedNanos.length) - 1];
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+}
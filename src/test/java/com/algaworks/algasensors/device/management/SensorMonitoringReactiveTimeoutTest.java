@@ -0,0 +1,75 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import io.hypersistence.tsid.TSID;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/*
+ * Com client-type=reactive o timeout de resposta do Reactor Netty tem que virar 504, como no cliente bloqueante
+ */
+@SpringBootTest(properties = {
+        "algasensors.monitoring.client-type=reactive",
+        "algasensors.monitoring.read-timeout=200ms",
+        "algasensors.monitoring.outbox.poll-interval=1h"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SensorMonitoringReactiveTimeoutTest {
+
+    private static final SensorMonitoringStubServer stub = startStub();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    @DynamicPropertySource
+    static void monitoringProperties(DynamicPropertyRegistry registry) {
+        registry.add("algasensors.monitoring.base-url", stub::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void deveRetornar504QuandoMonitoramentoNaoResponde() throws Exception {
+        Sensor sensor = sensorRepository.save(Sensor.builder()
+                .id(new SensorId(TSID.fast()))
+                .name("Sensor Reativo")
+                .enabled(true)
+                .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors/{sensorId}/detail", sensor.getId().getValue()))
+                .andExpect(MockMvcResultMatchers.status().isGatewayTimeout())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.type").value("/erros/gateway-timeout"));
+    }
+
+    // o stub segura cada resposta bem além do read-timeout
+    private static SensorMonitoringStubServer startStub() {
+        try {
+            return SensorMonitoringStubServer.start(Duration.ofSeconds(5));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.algaworks.algasensors.device.management;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Stub local do serviço de monitoramento (temperature-monitoring) para testes e benchmarks
+ */
+class SensorMonitoringStubServer implements AutoCloseable {
+
+    private static final Pattern MONITORING_PATH = Pattern.compile("/api/sensors/([^/]+)/monitoring(/enable)?");
+    private static final Pattern BATCH_PATH = Pattern.compile("/api/sensors/monitoring/batch-(detail|enable|disable)");
+    private static final Pattern JSON_STRING = Pattern.compile("\"([^\"]+)\"");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Queue<String> requestLog = new ConcurrentLinkedQueue<>();
+    private volatile Duration latency;
+    private volatile int failureStatus;
+
+    private SensorMonitoringStubServer(Duration latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server.setExecutor(executor);
+        this.server.createContext("/api/sensors/", this::handle);
+    }
+
+    static SensorMonitoringStubServer start(Duration latency) throws IOException {
+        SensorMonitoringStubServer stub = new SensorMonitoringStubServer(latency);
+        stub.server.start();
+        return stub;
+    }
+
+    String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    int getRequests() {
+        return requests.get();
+    }
+
+    /*
+     * Requisições recebidas no formato "METODO /caminho"
+     */
+    List<String> getRequestLog() {
+        return List.copyOf(requestLog);
+    }
+
+    void reset() {
+        requests.set(0);
+        requestLog.clear();
+        failureStatus = 0;
+    }
+
+    // com status diferente de zero todas as requisições respondem esse status
+    void failWith(int status) {
+        this.failureStatus = status;
+    }
+
+    void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        requestLog.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+        try (exchange) {
+            sleep();
+            if (failureStatus != 0) {
+                exchange.sendResponseHeaders(failureStatus, -1);
+                return;
+            }
+            Matcher batchMatcher = BATCH_PATH.matcher(exchange.getRequestURI().getPath());
+            if (batchMatcher.matches()) {
+                handleBatch(exchange, batchMatcher.group(1));
+                return;
+            }
+            Matcher matcher = MONITORING_PATH.matcher(exchange.getRequestURI().getPath());
+            if (!matcher.matches()) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            String sensorId = matcher.group(1);
+            boolean enablePath = matcher.group(2) != null;
+            String method = exchange.getRequestMethod();
+
+            if (enablePath && ("PUT".equals(method) || "DELETE".equals(method))) {
+                exchange.sendResponseHeaders(204, -1);
+            } else if (!enablePath && "GET".equals(method)) {
+                sendJson(exchange, detail(sensorId));
+            } else {
+                exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    /*
+     * Corpo: array JSON com os ids; batch-detail devolve um array com o detalhe de cada um
+     */
+    private void handleBatch(HttpExchange exchange, String operation) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(405, -1);
+            return;
+        }
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (!"detail".equals(operation)) {
+            exchange.sendResponseHeaders(204, -1);
+            return;
+        }
+        List<String> details = new ArrayList<>();
+        Matcher ids = JSON_STRING.matcher(body);
+        while (ids.find()) {
+            details.add(detail(ids.group(1)));
+        }
+        sendJson(exchange, "[" + String.join(",", details) + "]");
+    }
+
+    private static String detail(String sensorId) {
+        return """
+                {"id":"%s","lastTemperature":21.5,"updatedAt":"%s","enabled":true}"""
+                .formatted(sensorId, OffsetDateTime.now());
+    }
+
+    private static void sendJson(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private void sleep() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.model.SensorOutput;
+import com.algaworks.algasensors.device.management.api.registry.SensorRegistry;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import io.hypersistence.tsid.TSID;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/*
+ * Executar com ./gradlew benchmark
+ *
+ * Heap ocupado por 1 milhão de sensores no SensorRegistry e, para comparar, em HashMaps com
+ * SensorId/String como chave, do jeito que ficaria com as entidades lidas do banco
+ */
+@Tag("benchmark")
+class SensorRegistryMemoryBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorRegistryMemoryBenchmarkTest.class);
+
+    private static final int SENSORS = 1_000_000;
+
+    @Test
+    void medirMemoriaPorMilhaoDeSensores() {
+        long antes = usedHeap();
+        SensorRegistry registry = new SensorRegistry(null, null);
+        registry.load(sensors(), SENSORS);
+        long registro = usedHeap() - antes;
+        log.info("SensorRegistry: {} sensores, {} MB, {} bytes por sensor",
+                registry.size(), registro / (1024 * 1024), registro / SENSORS);
+
+        // referência mantida até aqui para o GC não recolher antes da medição
+        log.info("Consulta por IP: {}", registry.findByIp("10.0.0.1"));
+        registry = null;
+
+        antes = usedHeap();
+        Map<SensorId, SensorOutput> byId = new HashMap<>();
+        Map<String, List<SensorId>> byIp = new HashMap<>();
+        Map<String, List<SensorId>> byLocation = new HashMap<>();
+        sensors().forEach(sensor -> {
+            SensorId id = new SensorId(sensor.getId());
+            byId.put(id, sensor);
+            byIp.computeIfAbsent(sensor.getIp(), ip -> new ArrayList<>(1)).add(id);
+            byLocation.computeIfAbsent(sensor.getLocation(), location -> new ArrayList<>()).add(id);
+        });
+        long mapas = usedHeap() - antes;
+        log.info("HashMap<SensorId, SensorOutput> + índices: {} sensores, {} MB, {} bytes por sensor",
+                byId.size(), mapas / (1024 * 1024), mapas / SENSORS);
+        log.info("Tamanho dos índices: {} IPs, {} locais", byIp.size(), byLocation.size());
+    }
+
+    // cada linha com Strings próprias, como vêm do ResultSet
+    private static Stream<SensorOutput> sensors() {
+        return IntStream.range(0, SENSORS).mapToObj(i -> SensorOutput.builder()
+                .id(TSID.Factory.getTsid())
+                .name("Sensor " + i)
+                .ip("10." + ((i >>> 16) & 0xFF) + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF))
+                .location(new String("Sala " + (i % 100)))
+                .protocol(new String("MQTT"))
+                .model(new String("S-100"))
+                .enabled(i % 2 == 0)
+                .build());
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+}
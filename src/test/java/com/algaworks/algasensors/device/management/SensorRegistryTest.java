@@ -0,0 +1,80 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.model.SensorOutput;
+import com.algaworks.algasensors.device.management.api.registry.SensorRegistry;
+import com.algaworks.algasensors.device.management.api.stream.SensorChangedEvent;
+import com.algaworks.algasensors.device.management.api.stream.SensorsChangedEvent;
+import com.algaworks.algasensors.device.management.domain.model.SensorSummary;
+import io.hypersistence.tsid.TSID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class SensorRegistryTest {
+
+    @Test
+    void deveManterIndicesPorIpELocal() {
+        SensorRegistry registry = new SensorRegistry(null, null);
+        SensorOutput sensor = sensor("10.0.0.1", "Sala A");
+        SensorOutput outro = sensor("fe80::1", "Sala A");
+        registry.load(Stream.of(summary(sensor), summary(outro)), 2);
+
+        Assertions.assertThat(registry.findByIp("10.0.0.1")).containsExactly(sensor);
+        Assertions.assertThat(registry.findByIp("fe80::1")).containsExactly(outro);
+        Assertions.assertThat(registry.findByLocation("Sala A")).containsExactlyInAnyOrder(sensor, outro);
+
+        SensorOutput movido = new SensorOutput(sensor.getId(), sensor.getName(), "10.0.0.2", "Sala B",
+                sensor.getProtocol(), sensor.getModel(), sensor.getEnabled());
+        registry.onSensorChanged(SensorChangedEvent.of(SensorChangedEvent.Type.UPDATED, movido));
+        Assertions.assertThat(registry.findByIp("10.0.0.1")).isEmpty();
+        Assertions.assertThat(registry.findByIp("10.0.0.2")).containsExactly(movido);
+        Assertions.assertThat(registry.findByLocation("Sala A")).containsExactly(outro);
+
+        // ativação em lote só traz o id
+        registry.onSensorChanged(SensorChangedEvent.of(SensorChangedEvent.Type.ENABLED, movido.getId()));
+        Assertions.assertThat(registry.findByIp("10.0.0.2").get(0).getEnabled()).isTrue();
+
+        registry.onSensorChanged(SensorChangedEvent.of(SensorChangedEvent.Type.DELETED, outro));
+        Assertions.assertThat(registry.findByIp("fe80::1")).isEmpty();
+        Assertions.assertThat(registry.findByLocation("Sala A")).isEmpty();
+        Assertions.assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    void deveAplicarBlocoDoJobEmMassaComUmaUnicaCopia() {
+        SensorRegistry registry = new SensorRegistry(null, null);
+        List<SensorOutput> sensores = IntStream.range(0, 500)
+                .mapToObj(i -> sensor("10.0." + (i / 256) + "." + (i % 256), "Sala " + (i % 10)))
+                .toList();
+        registry.load(sensores.stream().map(SensorRegistryTest::summary), sensores.size());
+        long versao = registry.version();
+
+        registry.onSensorsChanged(new SensorsChangedEvent(SensorChangedEvent.Type.ENABLED,
+                sensores.stream().map(SensorOutput::getId).toList()));
+
+        Assertions.assertThat(registry.version()).isEqualTo(versao + 1);
+        Assertions.assertThat(sensores)
+                .allMatch(sensor -> registry.findById(sensor.getId()).orElseThrow().getEnabled());
+    }
+
+    private static SensorSummary summary(SensorOutput sensor) {
+        return new SensorSummary(sensor.getId(), sensor.getName(), sensor.getIp(), sensor.getLocation(),
+                sensor.getProtocol(), sensor.getModel(), sensor.getEnabled());
+    }
+
+    private static SensorOutput sensor(String ip, String location) {
+        return SensorOutput.builder()
+                .id(TSID.fast())
+                .name("Sensor " + ip)
+                .ip(ip)
+                .location(location)
+                .protocol("MQTT")
+                .model("S-100")
+                .enabled(false)
+                .build();
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import io.hypersistence.tsid.TSID;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/*
+ * findById é atendido pela região "sensor" do cache de segundo nível, a única camada de cache de Sensor
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SensorRepositoryCacheTest {
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cache cache;
+    private Sensor sensor;
+
+    @BeforeEach
+    void setUp() {
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        sensorRepository.deleteAll();
+        sensor = sensorRepository.save(Sensor.builder()
+                .id(new SensorId(TSID.fast()))
+                .name("Sensor Cache")
+                .ip("192.168.1.50")
+                .protocol("MQTT")
+                .location("Sala A")
+                .model("S-100")
+                .enabled(false)
+                .build());
+        cache.evictEntityData(Sensor.class);
+    }
+
+    @Test
+    void deveGuardarSensorNoCacheAoBuscarPorId() {
+        sensorRepository.findById(sensor.getId()).orElseThrow();
+
+        Assertions.assertThat(cache.containsEntity(Sensor.class, sensor.getId())).isTrue();
+    }
+
+    @Test
+    void deveDevolverCopiaIndependenteDoCache() {
+        var primeiraLeitura = sensorRepository.findById(sensor.getId()).orElseThrow();
+        primeiraLeitura.enable();
+
+        var segundaLeitura = sensorRepository.findById(sensor.getId()).orElseThrow();
+        Assertions.assertThat(segundaLeitura).isNotSameAs(primeiraLeitura);
+        Assertions.assertThat(segundaLeitura.getEnabled()).isFalse();
+    }
+
+    @Test
+    void deveInvalidarCacheAoSalvar() {
+        var existente = sensorRepository.findById(sensor.getId()).orElseThrow();
+        existente.enable();
+        sensorRepository.saveAndFlush(existente);
+
+        // READ_WRITE: a região passa a ter o estado gravado, não o antigo
+        Assertions.assertThat(sensorRepository.findById(sensor.getId()).orElseThrow().getEnabled()).isTrue();
+    }
+
+    @Test
+    void deveInvalidarCacheAoDeletar() {
+        var existente = sensorRepository.findById(sensor.getId()).orElseThrow();
+        sensorRepository.delete(existente);
+
+        Assertions.assertThat(cache.containsEntity(Sensor.class, sensor.getId())).isFalse();
+        Assertions.assertThat(sensorRepository.findById(sensor.getId())).isEmpty();
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.api.model.SensorInput;
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hypersistence.tsid.TSID;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+@SpringBootTest(properties = "algasensors.monitoring.outbox.poll-interval=1h")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SensorSecondLevelCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private Sensor sensor;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        sensorRepository.deleteAll();
+        sensor = sensorRepository.save(Sensor.builder()
+                .id(new SensorId(TSID.fast()))
+                .name("Sensor L2")
+                .location("Sala L2")
+                .enabled(false)
+                .build());
+        statistics.clear();
+    }
+
+    @Test
+    void deveLerSensorDoCacheDeSegundoNivel() {
+        sensorRepository.findAllById(List.of(sensor.getId()));
+        sensorRepository.findAllById(List.of(sensor.getId()));
+
+        Assertions.assertThat(sessionFactory.getCache().containsEntity(Sensor.class, sensor.getId())).isTrue();
+        Assertions.assertThat(statistics.getDomainDataRegionStatistics("sensor").getHitCount()).isPositive();
+    }
+
+    @Test
+    void deveReaproveitarConsultaFiltradaDoCacheDeConsultas() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/api/sensors").param("location", "Sala L2"))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(1));
+        }
+
+        Assertions.assertThat(statistics.getQueryCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void deveAtualizarCacheDeSegundoNivelAoEditar() throws Exception {
+        sensorRepository.findAllById(List.of(sensor.getId()));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/sensors/{sensorId}", sensor.getId().getValue())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(SensorInput.builder().name("Sensor L2 Editado").build())))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Assertions.assertThat(sensorRepository.findAllById(List.of(sensor.getId())))
+                .singleElement()
+                .extracting(Sensor::getName)
+                .isEqualTo("Sensor L2 Editado");
+    }
+
+    @Test
+    void deveRemoverDoCacheDeSegundoNivelAoDeletar() throws Exception {
+        sensorRepository.findAllById(List.of(sensor.getId()));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/sensors/{sensorId}", sensor.getId().getValue()))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        Assertions.assertThat(sessionFactory.getCache().containsEntity(Sensor.class, sensor.getId())).isFalse();
+        Assertions.assertThat(sensorRepository.findAllById(List.of(sensor.getId()))).isEmpty();
+    }
+
+}
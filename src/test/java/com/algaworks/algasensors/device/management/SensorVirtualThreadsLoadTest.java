@@ -0,0 +1,141 @@
+package com.algaworks.algasensors.device.management;
+
+import com.algaworks.algasensors.device.management.domain.model.Sensor;
+import com.algaworks.algasensors.device.management.domain.model.SensorId;
+import com.algaworks.algasensors.device.management.domain.repository.SensorRepository;
+import io.hypersistence.tsid.TSID;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Executar com ./gradlew benchmark
+ *
+ * Sobe a aplicação duas vezes com os mesmos limites do profile virtual-threads, mudando apenas
+ * spring.threads.virtual.enabled, e dispara GET /api/sensors/{id}/detail contra um monitoramento com latência.
+ */
+@Tag("benchmark")
+class SensorVirtualThreadsLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorVirtualThreadsLoadTest.class);
+
+    private static final Duration MONITORING_LATENCY = Duration.ofMillis(50);
+    private static final int CONCURRENCY = 1_000;
+    private static final int REQUESTS = 20_000;
+    private static final int SENSORS = 100;
+
+    private static SensorMonitoringStubServer stub;
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        stub = SensorMonitoringStubServer.start(MONITORING_LATENCY);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void compararPlatformThreadsComVirtualThreads() throws Exception {
+        run("platform threads", false);
+        run("virtual threads", true);
+    }
+
+    private void run(String name, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DeviceManagementApplication.class)
+                .profiles("test", "virtual-threads")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        // sem cache de monitoramento: cada requisição chega ao serviço com latência
+                        "algasensors.monitoring.detail-cache.maximum-size=0",
+                        "algasensors.monitoring.base-url=" + stub.getBaseUrl())
+                .run()) {
+
+            List<TSID> sensorIds = createSensors(context.getBean(SensorRepository.class));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            stub.reset();
+
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            long[] latencies = new long[REQUESTS];
+            AtomicInteger errors = new AtomicInteger();
+            Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+            long inicio = System.nanoTime();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>(REQUESTS);
+                for (int i = 0; i < REQUESTS; i++) {
+                    int request = i;
+                    URI uri = URI.create(baseUrl + "/api/sensors/" + sensorIds.get(i % SENSORS) + "/detail");
+                    inFlight.acquire();
+                    futures.add(executor.submit(() -> {
+                        try {
+                            long start = System.nanoTime();
+                            HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uri).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            latencies[request] = System.nanoTime() - start;
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } finally {
+                            inFlight.release();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            long totalMs = (System.nanoTime() - inicio) / 1_000_000;
+
+            Arrays.sort(latencies);
+            log.info("{}: {} req em {} ms ({} req/s), erros = {}, p50 = {} ms, p99 = {} ms",
+                    name, REQUESTS, totalMs, REQUESTS * 1000L / Math.max(1, totalMs), errors.get(),
+                    percentile(latencies, 0.50), percentile(latencies, 0.99));
+        }
+    }
+
+    private static List<TSID> createSensors(SensorRepository sensorRepository) {
+        List<TSID> sensorIds = new ArrayList<>(SENSORS);
+        for (int i = 0; i < SENSORS; i++) {
+            Sensor sensor = sensorRepository.save(Sensor.builder()
+                    .id(new SensorId(TSID.fast()))
+                    .name("Sensor Carga " + i)
+                    .enabled(true)
+                    .build());
+            sensorIds.add(sensor.getId().getValue());
+        }
+        return sensorIds;
+    }
+
+    private static String percentile(long[] sortedNanos, double percentile) {
+        long nanos = sortedNanos[(int) Math.ceil(percentile * sortedNanos.length) - 1];
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+}
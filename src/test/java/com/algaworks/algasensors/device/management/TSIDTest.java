@@ -1,12 +1,25 @@
 package com.algaworks.algasensors.device.management;
 
+import com.algaworks.algasensors.device.management.api.config.jackson.TSIDJacksonConfig;
+import com.algaworks.algasensors.device.management.api.config.jackson.TSIDToStringSerializer;
+import com.algaworks.algasensors.device.management.common.AtomicTSIDFactory;
 import com.algaworks.algasensors.device.management.common.IdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.hypersistence.tsid.TSID;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class TSIDTest {
 
@@ -63,4 +76,67 @@ public class TSIDTest {
                         ChronoUnit.MINUTES));
     }
 
+    @Test
+    public void shouldGenerateUniqueTSIDsAcrossThreads() throws Exception {
+        AtomicTSIDFactory factory = new AtomicTSIDFactory(2, 5);
+        List<Future<List<TSID>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int t = 0; t < 16; t++) {
+                futures.add(executor.submit(() -> {
+                    List<TSID> tsids = new ArrayList<>(factory.generate(1_000));
+                    for (int i = 0; i < 1_000; i++) {
+                        tsids.add(factory.generate());
+                    }
+                    return tsids;
+                }));
+            }
+        }
+
+        Set<TSID> all = new HashSet<>();
+        for (Future<List<TSID>> future : futures) {
+            List<TSID> tsids = future.get();
+            List<TSID> sorted = new ArrayList<>(tsids);
+            Collections.sort(sorted);
+            Assertions.assertThat(tsids).isEqualTo(sorted);
+            all.addAll(tsids);
+        }
+        Assertions.assertThat(all).hasSize(16 * 2_000);
+    }
+
+    @Test
+    public void shouldGenerateMonotonicTSIDsForTheNodeAcrossThreads() throws Exception {
+        AtomicTSIDFactory factory = new AtomicTSIDFactory(2, 5);
+        List<TSID> tsids = new ArrayList<>();
+        try (ExecutorService first = Executors.newSingleThreadExecutor();
+             ExecutorService second = Executors.newSingleThreadExecutor()) {
+            // threads alternadas: o id gerado depois é sempre maior, qualquer que seja a thread
+            for (int i = 0; i < 1_000; i++) {
+                ExecutorService executor = i % 2 == 0 ? first : second;
+                tsids.add(executor.submit(() -> factory.generate()).get());
+            }
+        }
+
+        List<TSID> sorted = new ArrayList<>(tsids);
+        Collections.sort(sorted);
+        Assertions.assertThat(tsids).isEqualTo(sorted).doesNotHaveDuplicates();
+        Assertions.assertThat(tsids).allMatch(tsid -> ((tsid.getRandom() >>> 17) & 0x1F) == 2);
+    }
+
+    @Test
+    public void shouldEncodeTSIDLikeToString() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new TSIDJacksonConfig().tsidModule());
+        char[] buffer = new char[13];
+        List<TSID> tsids = new ArrayList<>(List.of(TSID.from(0L), TSID.from(-1L), TSID.from(Long.MIN_VALUE),
+                TSID.from(Long.MAX_VALUE)));
+        for (int i = 0; i < 1_000; i++) {
+            tsids.add(TSID.from(ThreadLocalRandom.current().nextLong()));
+        }
+
+        for (TSID tsid : tsids) {
+            TSIDToStringSerializer.encode(tsid.toLong(), buffer);
+            Assertions.assertThat(new String(buffer)).isEqualTo(tsid.toString());
+            Assertions.assertThat(objectMapper.writeValueAsString(tsid)).isEqualTo('"' + tsid.toString() + '"');
+        }
+    }
+
 }